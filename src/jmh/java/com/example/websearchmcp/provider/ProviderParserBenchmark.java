@@ -0,0 +1,99 @@
+package com.example.websearchmcp.provider;
+
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree-model extraction (the original {@code bodyToMono(JsonNode.class)} path) against the
+ * streaming parser, over the recorded provider payloads in {@code src/test/resources/fixtures}.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProviderParserBenchmark {
+
+    @Param({"brave", "serpapi", "google"})
+    public String provider;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] body;
+    private StreamingResultParser parser;
+    private String[] fields;
+    private String resultsPointer;
+
+    @Setup
+    public void setUp() throws IOException {
+        switch (provider) {
+            case "brave" -> {
+                body = fixture("brave-web-search.json");
+                resultsPointer = "/web/results";
+                fields = new String[] {"title", "url", "description", "display_url"};
+            }
+            case "serpapi" -> {
+                body = fixture("serpapi-google-search.json");
+                resultsPointer = "/organic_results";
+                fields = new String[] {"title", "link", "snippet", "displayed_link"};
+            }
+            case "google" -> {
+                body = fixture("google-custom-search.json");
+                resultsPointer = "/items";
+                fields = new String[] {"title", "link", "snippet", "displayLink"};
+            }
+            default -> throw new IllegalArgumentException(provider);
+        }
+        parser = new StreamingResultParser(provider, resultsPointer.substring(1).replace('/', '.'),
+                fields[0], fields[1], fields[2], fields[3]);
+    }
+
+    @Benchmark
+    public SearchResult treeModel() throws IOException {
+        List<SearchResultItem> items = new ArrayList<>();
+        JsonNode results = objectMapper.readTree(body).at(resultsPointer);
+        if (results.isArray()) {
+            for (JsonNode result : results) {
+                items.add(new SearchResultItem(
+                        result.path(fields[0]).asText(""),
+                        result.path(fields[1]).asText(""),
+                        result.path(fields[2]).asText(""),
+                        result.path(fields[3]).asText(""),
+                        provider
+                ));
+            }
+        }
+        return new SearchResult("java virtual threads", items.size(), items);
+    }
+
+    @Benchmark
+    public SearchResult streaming() {
+        return parser.parse("java virtual threads", body);
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = ProviderParserBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.websearchmcp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The previous fixed-window counter (a Caffeine map of {@link AtomicInteger}s expiring after
+ * write) against {@link GcraRateLimiter}, with 16 threads hitting either one shared client or
+ * a client each. A limit far above the request rate keeps both on the admit path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class RateLimiterBenchmark {
+
+    @Param({"shared", "perThread"})
+    public String clients;
+
+    @Param({"60", "100000000"})
+    public int limitPerMinute;
+
+    private Cache<String, AtomicInteger> fixedWindow;
+    private GcraRateLimiter gcra;
+
+    @Setup
+    public void setUp() {
+        fixedWindow = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build();
+        gcra = new GcraRateLimiter(100_000, Ticker.systemTicker());
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final AtomicInteger ids = new AtomicInteger();
+
+        String id;
+
+        @Setup
+        public void setUp(RateLimiterBenchmark benchmark) {
+            id = benchmark.clients.equals("shared") ? "10.0.0.1" : "10.0.1." + ids.incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    public boolean fixedWindow(Client client) {
+        AtomicInteger count = fixedWindow.get(client.id, k -> new AtomicInteger(0));
+        return count.incrementAndGet() <= limitPerMinute;
+    }
+
+    @Benchmark
+    public boolean gcra(Client client) {
+        return GcraRateLimiter.admitted(gcra.tryAcquire(client.id, limitPerMinute));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.websearchmcp.security;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link RateLimitingFilter#doFilterInternal} on the admit path at 1 to 64 threads, with every
+ * thread sending as the same client or as a client of its own. The limit is far above the
+ * request rate, so the numbers show the cost of the check and its contention, not rejections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitingFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @Param({"shared", "perThread"})
+    public String clients;
+
+    private RateLimitingFilter filter;
+
+    @Setup
+    public void setUp() {
+        WebSearchProperties properties = new WebSearchProperties("key", null, 10, Integer.MAX_VALUE, 300, 5,
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        filter = new RateLimitingFilter(properties, Ticker.systemTicker(), null, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final AtomicInteger ids = new AtomicInteger();
+
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp(RateLimitingFilterBenchmark benchmark) {
+            request = new MockHttpServletRequest("POST", "/mcp");
+            request.setRemoteAddr(benchmark.clients.equals("shared") ? "10.0.0.1" : "10.0.1." + ids.incrementAndGet());
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int threads01(Client client) throws ServletException, IOException {
+        return filter(client);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int threads04(Client client) throws ServletException, IOException {
+        return filter(client);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int threads16(Client client) throws ServletException, IOException {
+        return filter(client);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int threads64(Client client) throws ServletException, IOException {
+        return filter(client);
+    }
+
+    private int filter(Client client) throws ServletException, IOException {
+        filter.doFilterInternal(client.request, client.response, CHAIN);
+        return client.response.getStatus();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.config.WebSearchProperties.QueryNormalization;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.example.websearchmcp.service.SearchResultCache.Hit;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The cache side of a search: canonicalizing the query into its key, then looking it up in
+ * a Caffeine-backed {@link SearchResultCache} configured like {@code CacheConfig}'s, holding
+ * 10,000 entries of 10 results. A hit includes decoding the compact entry back into records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SearchResultCacheBenchmark {
+
+    private static final int ENTRIES = 10_000;
+
+    private final QueryCanonicalizer canonicalizer =
+            new DefaultQueryCanonicalizer(new QueryNormalization(true, true, true, true, false, null));
+    private SearchResultCache cache;
+    private String[] queries;
+
+    @Setup
+    public void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("searchResults");
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .maximumWeight(256L * 1024 * 1024)
+                .weigher(SearchResultCache::weigh)
+                .recordStats());
+        cache = new SearchResultCache(cacheManager, Duration.ofMinutes(5), Duration.ofMinutes(10),
+                Duration.ofMinutes(5), Clock.systemUTC(), null);
+
+        queries = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            queries[i] = "How do Java Virtual Threads compare to Go routines? #" + i;
+            String key = canonicalizer.canonicalize(queries[i]);
+            cache.put(Provider.BRAVE, key, 10, new SearchResult(queries[i], 10, IntStream.range(0, 10)
+                    .mapToObj(rank -> new SearchResultItem("Result " + rank + " for " + key,
+                            "https://example.com/" + key.hashCode() + "/" + rank,
+                            "A description of about a hundred characters, as providers usually return for result "
+                                    + rank + ".", "example.com", "brave"))
+                    .toList()), false);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int next;
+
+        String next(String[] queries) {
+            next = (next + 7919) % queries.length;
+            return queries[next];
+        }
+    }
+
+    @Benchmark
+    public String canonicalize(Cursor cursor) {
+        return canonicalizer.canonicalize(cursor.next(queries));
+    }
+
+    @Benchmark
+    public Optional<Hit> hit(Cursor cursor) {
+        return cache.get(Provider.BRAVE, canonicalizer.canonicalize(cursor.next(queries)), 10).blockOptional();
+    }
+
+    @Benchmark
+    public Optional<Hit> miss(Cursor cursor) {
+        return cache.get(Provider.SERPAPI, canonicalizer.canonicalize(cursor.next(queries)), 10).blockOptional();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.websearchmcp.tools;
+
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Markdown rendering of a search result at the sizes tools return: {@code quick_search}'s 3,
+ * the default 10 and the maximum 100, with and without an output budget that forces
+ * descriptions to be shortened and results dropped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchResultFormatterBenchmark {
+
+    @Param({"3", "10", "100"})
+    public int items;
+
+    private SearchResult result;
+    private OutputBudget budget;
+
+    @Setup
+    public void setUp() {
+        result = new SearchResult("java virtual threads", items, IntStream.range(0, items)
+                .mapToObj(i -> new SearchResultItem(
+                        "Virtual threads in Java 21, part " + i,
+                        "https://example.com/articles/java-virtual-threads-" + i,
+                        "Virtual threads are lightweight threads that reduce the effort of writing, maintaining, "
+                                + "and debugging high-throughput concurrent applications. Result " + i + ".",
+                        "example.com", "brave"))
+                .toList());
+        // About half of what the full rendering needs
+        budget = OutputBudget.of(null, SearchResultFormatter.format(result).length() / 2);
+    }
+
+    @Benchmark
+    public String format() {
+        return SearchResultFormatter.format(result);
+    }
+
+    @Benchmark
+    public String formatWithinBudget() {
+        return SearchResultFormatter.format(result, budget);
+    }
+}
@@ -1,16 +1,31 @@
 package com.example.websearchmcp.config;
 
+import com.example.websearchmcp.service.DefaultQueryCanonicalizer;
+import com.example.websearchmcp.service.DiskResultStore;
+import com.example.websearchmcp.service.QueryCanonicalizer;
+import com.example.websearchmcp.service.RedisSharedStore;
+import com.example.websearchmcp.service.SearchResultCache;
+import com.example.websearchmcp.service.SharedStore;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.time.Clock;
 import java.time.Duration;
 
 @Configuration
 public class CacheConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(CacheConfig.class);
+
     private final WebSearchProperties properties;
 
     public CacheConfig(WebSearchProperties properties) {
@@ -19,11 +34,58 @@ public class CacheConfig {
 
     @Bean
     public CacheManager cacheManager() {
+        // Entries are kept past the hard TTL for the stale-if-error grace period;
+        // SearchResultCache decides whether they may still be served
+        Duration retention = hardTtl().plus(staleIfErrorGrace());
+
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("searchResults");
         cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofSeconds(properties.cacheExpirationSeconds()))
-                .maximumSize(1000)
+                .expireAfterWrite(retention)
+                .maximumWeight(properties.cache().maxWeightMb() * 1024L * 1024L)
+                .weigher(SearchResultCache::weigh)
                 .recordStats());
         return cacheManager;
     }
+
+    @Bean
+    public SearchResultCache searchResultCache(CacheManager cacheManager, ObjectProvider<DiskResultStore> diskStore,
+                                               ObjectProvider<SharedStore> sharedStore) {
+        Duration softTtl = Duration.ofSeconds(properties.cache().refreshAfterSeconds());
+        SearchResultCache cache = new SearchResultCache(cacheManager, softTtl, hardTtl(), staleIfErrorGrace(),
+                Clock.systemUTC(), diskStore.getIfAvailable(), sharedStore.getIfAvailable());
+
+        int warmed = cache.warmUp(properties.cache().disk().warmStartEntries());
+        if (warmed > 0) {
+            log.info("Warmed search result cache with {} entries from disk", warmed);
+        }
+        return cache;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "websearch.cache.disk", name = "enabled", havingValue = "true")
+    public DiskResultStore diskResultStore() {
+        WebSearchProperties.DiskTier disk = properties.cache().disk();
+        return new DiskResultStore(Path.of(disk.directory()), disk.maxSizeMb() * 1024L * 1024L,
+                Duration.ofSeconds(disk.compactionIntervalSeconds()), Clock.systemUTC());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("!'${websearch.cluster.redis-uri:}'.isBlank()")
+    public SharedStore sharedStore() {
+        WebSearchProperties.Cluster cluster = properties.cluster();
+        return new RedisSharedStore(cluster.redisUri(), cluster.keyPrefix(), Duration.ofMillis(cluster.timeoutMillis()));
+    }
+
+    @Bean
+    public QueryCanonicalizer queryCanonicalizer() {
+        return new DefaultQueryCanonicalizer(properties.queryNormalization());
+    }
+
+    private Duration hardTtl() {
+        return Duration.ofSeconds(properties.cacheExpirationSeconds());
+    }
+
+    private Duration staleIfErrorGrace() {
+        return Duration.ofSeconds(properties.cache().staleIfErrorSeconds());
+    }
 }
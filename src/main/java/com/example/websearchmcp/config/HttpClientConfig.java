@@ -0,0 +1,153 @@
+package com.example.websearchmcp.config;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.config.WebSearchProperties.ProviderHttp;
+import com.example.websearchmcp.service.PublicAddressResolverGroup;
+import io.netty.channel.ChannelOption;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.HttpResources;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.transport.NameResolverProvider;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider braveConnectionProvider(WebSearchProperties properties) {
+        return providerConnections(properties.providerHttp(), Provider.BRAVE);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serpApiConnectionProvider(WebSearchProperties properties) {
+        return providerConnections(properties.providerHttp(), Provider.SERPAPI);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider googleCustomSearchConnectionProvider(WebSearchProperties properties) {
+        return providerConnections(properties.providerHttp(), Provider.GOOGLE_CUSTOM_SEARCH);
+    }
+
+    @Bean
+    public WebClient braveWebClient(WebClient.Builder builder, WebSearchProperties properties,
+                                    ConnectionProvider braveConnectionProvider) {
+        return providerWebClient(builder, properties.providerHttp(), braveConnectionProvider);
+    }
+
+    @Bean
+    public WebClient serpApiWebClient(WebClient.Builder builder, WebSearchProperties properties,
+                                      ConnectionProvider serpApiConnectionProvider) {
+        return providerWebClient(builder, properties.providerHttp(), serpApiConnectionProvider);
+    }
+
+    @Bean
+    public WebClient googleCustomSearchWebClient(WebClient.Builder builder, WebSearchProperties properties,
+                                                 ConnectionProvider googleCustomSearchConnectionProvider) {
+        return providerWebClient(builder, properties.providerHttp(), googleCustomSearchConnectionProvider);
+    }
+
+    @Bean
+    public ProviderConnectionWarmup providerConnectionWarmup(WebClient braveWebClient, WebClient serpApiWebClient,
+                                                             WebClient googleCustomSearchWebClient,
+                                                             WebSearchProperties properties) {
+        Map<Provider, WebClient> clients = new EnumMap<>(Provider.class);
+        clients.put(Provider.BRAVE, braveWebClient);
+        clients.put(Provider.SERPAPI, serpApiWebClient);
+        clients.put(Provider.GOOGLE_CUSTOM_SEARCH, googleCustomSearchWebClient);
+        return new ProviderConnectionWarmup(clients, properties);
+    }
+
+    /**
+     * Connection pool for one search provider, so a slow provider can't hold the connections
+     * another one needs. Connections are reused most recently used first, which lets the
+     * surplus after a burst idle out, and are replaced after {@code maxLifeSeconds}. Reactor
+     * Netty publishes the pool's active, idle and pending connections and its acquire time as
+     * {@code reactor.netty.connection.provider.*} meters tagged with the pool name.
+     */
+    private static ConnectionProvider providerConnections(ProviderHttp http, Provider provider) {
+        return ConnectionProvider
+                .builder("provider-" + provider.name().toLowerCase(Locale.ROOT))
+                .maxConnections(http.maxConnections(provider))
+                .pendingAcquireMaxCount(http.maxPendingAcquires(provider))
+                .pendingAcquireTimeout(Duration.ofMillis(http.pendingAcquireTimeoutMillis()))
+                .maxIdleTime(Duration.ofSeconds(http.maxIdleSeconds()))
+                .maxLifeTime(Duration.ofSeconds(http.maxLifeSeconds()))
+                .evictInBackground(Duration.ofSeconds(http.evictIntervalSeconds()))
+                .lifo()
+                .metrics(true)
+                .build();
+    }
+
+    private static WebClient providerWebClient(WebClient.Builder builder, ProviderHttp http,
+                                               ConnectionProvider connections) {
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, http.connectTimeoutMillis())
+                .responseTimeout(Duration.ofMillis(http.responseTimeoutMillis()))
+                .compress(http.compression());
+        if (http.http2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider pageFetchConnectionProvider(WebSearchProperties properties) {
+        WebSearchProperties.Fetch fetch = properties.fetch();
+        return ConnectionProvider.builder("page-fetch")
+                .maxConnections(fetch.maxConnectionsPerHost())
+                // Requests beyond the per-host cap queue for a connection, bounded only by the fetch timeout
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMillis(fetch.timeoutMillis()))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+    }
+
+    /**
+     * Reactor Netty's DNS resolver, on the default event loops the page client runs on.
+     */
+    @Bean(destroyMethod = "close")
+    public DnsAddressResolverGroup pageFetchResolver() {
+        return NameResolverProvider.builder().build()
+                .newNameResolverGroup(HttpResources.get(), LoopResources.DEFAULT_NATIVE);
+    }
+
+    /**
+     * Client for fetching arbitrary web pages. It has its own connection pool, where Reactor
+     * Netty keeps a separate pool per remote address, so {@code maxConnectionsPerHost} caps
+     * the connections to any one site across all calls. Redirects are not followed here;
+     * {@code PageFetcher} follows them itself so it can check each target. Unless private
+     * addresses are allowed, every resolved address is checked again before connecting.
+     */
+    @Bean
+    public WebClient pageWebClient(WebClient.Builder builder, WebSearchProperties properties,
+                                   ConnectionProvider pageFetchConnectionProvider,
+                                   DnsAddressResolverGroup pageFetchResolver) {
+        HttpClient httpClient = HttpClient.create(pageFetchConnectionProvider)
+                .compress(true)
+                .followRedirect(false)
+                .responseTimeout(Duration.ofMillis(properties.fetch().timeoutMillis()))
+                .resolver(properties.fetch().allowPrivateAddresses() ? pageFetchResolver
+                        : new PublicAddressResolverGroup(pageFetchResolver));
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,text/plain;q=0.9")
+                .defaultHeader(HttpHeaders.USER_AGENT, "web-search-mcp/1.0")
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.websearchmcp.config;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens connections to every provider the app may call before it reports ready, so the first
+ * searches after a scale-out don't pay for DNS lookups and TLS handshakes. Boot only marks
+ * the app as accepting traffic once its runners have finished.
+ *
+ * <p>Each connection is opened with an unauthenticated {@code HEAD} request to the provider's
+ * endpoint, which doesn't count against the API quota; the response status is ignored.
+ * Providers that can't be reached are logged and left to connect on first use.
+ */
+class ProviderConnectionWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderConnectionWarmup.class);
+
+    private final Map<Provider, WebClient> clients;
+    private final WebSearchProperties properties;
+
+    ProviderConnectionWarmup(Map<Provider, WebClient> clients, WebSearchProperties properties) {
+        this.clients = clients;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int connections = properties.providerHttp().warmUpConnections();
+        if (connections == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        Flux.fromIterable(configuredProviders())
+                .flatMap(provider -> warmUp(provider, connections))
+                .then()
+                .block();
+        log.info("Provider connections warmed up in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Set<Provider> configuredProviders() {
+        Set<Provider> providers = EnumSet.of(properties.provider());
+        providers.addAll(properties.resilience().failover());
+        if (properties.hedging().enabled()) {
+            providers.add(properties.hedging().secondary());
+        }
+        return providers;
+    }
+
+    private Mono<Void> warmUp(Provider provider, int connections) {
+        String url = properties.endpoints().url(provider);
+        Duration timeout = Duration.ofMillis(properties.providerHttp().connectTimeoutMillis()
+                + properties.providerHttp().responseTimeoutMillis());
+        AtomicInteger failed = new AtomicInteger();
+        return Flux.range(0, connections)
+                .flatMap(i -> clients.get(provider).head()
+                        .uri(url)
+                        .exchangeToMono(response -> response.releaseBody())
+                        .timeout(timeout)
+                        .onErrorResume(e -> {
+                            if (failed.getAndIncrement() == 0) {
+                                log.warn("Could not warm up connections to {} at {}: {}", provider, url, e.toString());
+                            }
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.websearchmcp.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.List;
+import java.util.Map;
+
 @ConfigurationProperties(prefix = "websearch")
 @Validated
 public record WebSearchProperties(
@@ -21,7 +28,52 @@ public record WebSearchProperties(
         int rateLimitPerMinute,
 
         @Min(1) @Max(86400)
-        int cacheExpirationSeconds
+        int cacheExpirationSeconds,
+
+        @Min(1) @Max(10)
+        int maxPageConcurrency,
+
+        @DefaultValue
+        QueryNormalization queryNormalization,
+
+        @Valid @DefaultValue
+        CacheSettings cache,
+
+        @DefaultValue
+        Endpoints endpoints,
+
+        // Per-provider keys for running more than one provider; each falls back to apiKey
+        Map<Provider, String> apiKeys,
+
+        @Valid @DefaultValue
+        Hedging hedging,
+
+        @Valid @DefaultValue
+        Resilience resilience,
+
+        @Valid @DefaultValue
+        UpstreamLimits upstreamLimits,
+
+        @Valid @DefaultValue
+        ClientLimits clientLimits,
+
+        @Valid @DefaultValue
+        Cluster cluster,
+
+        @Valid @DefaultValue
+        Batch batch,
+
+        @Valid @DefaultValue
+        Fetch fetch,
+
+        @Valid @DefaultValue
+        Deduplication deduplication,
+
+        @Valid @DefaultValue
+        ProviderHttp providerHttp,
+
+        @Valid @DefaultValue
+        Jwt jwt
 ) {
     public WebSearchProperties {
         if (provider == null) {
@@ -36,6 +88,649 @@ public record WebSearchProperties(
         if (cacheExpirationSeconds == 0) {
             cacheExpirationSeconds = 300;
         }
+        if (maxPageConcurrency == 0) {
+            maxPageConcurrency = 5;
+        }
+        if (queryNormalization == null) {
+            queryNormalization = new QueryNormalization(true, true, true, true, false, null);
+        }
+        if (cache == null) {
+            cache = new CacheSettings(0, 0, 0, null);
+        }
+        if (endpoints == null) {
+            endpoints = new Endpoints(null, null, null);
+        }
+        apiKeys = apiKeys == null ? Map.of() : Map.copyOf(apiKeys);
+        if (hedging == null) {
+            hedging = new Hedging(false, null, 0, 0, 0);
+        }
+        if (resilience == null) {
+            resilience = new Resilience(null, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        if (upstreamLimits == null) {
+            upstreamLimits = new UpstreamLimits(null, 0, 0);
+        }
+        if (clientLimits == null) {
+            clientLimits = new ClientLimits(null, 0);
+        }
+        if (cluster == null) {
+            cluster = new Cluster(null, null, 0, 0);
+        }
+        if (batch == null) {
+            batch = new Batch(0, 0, 0);
+        }
+        if (fetch == null) {
+            fetch = new Fetch(0, 0, 0, 0, 0, 0, 0, 0, false);
+        }
+        if (deduplication == null) {
+            deduplication = new Deduplication(true, false, 0, null);
+        }
+        if (providerHttp == null) {
+            providerHttp = new ProviderHttp(0, 0, 0, 0, 0, 0, 0, 0, true, true, 2, null);
+        }
+        if (jwt == null) {
+            jwt = new Jwt(10000, 0, 0);
+        }
+        if (hedging.enabled() && (hedging.secondary() == null || hedging.secondary() == provider)) {
+            throw new IllegalArgumentException(
+                    "websearch.hedging.secondary must name a provider other than websearch.provider");
+        }
+    }
+
+    /**
+     * Key for the given provider: its entry in {@code apiKeys} if set, otherwise {@code apiKey}.
+     */
+    public String apiKey(Provider provider) {
+        String key = apiKeys.get(provider);
+        return key == null || key.isBlank() ? apiKey : key;
+    }
+
+    /**
+     * Hedged requests: if {@code provider} hasn't answered within the configured percentile of
+     * its recent latency, the same search is sent to {@code secondary} and the first successful
+     * response wins.
+     */
+    public record Hedging(
+            boolean enabled,
+
+            Provider secondary,
+
+            @DecimalMin("0.5") @DecimalMax("0.999")
+            double delayPercentile,
+
+            // Bounds for the hedge delay; maxDelayMillis is also used until enough latencies are observed
+            @Min(1) @Max(60000)
+            int minDelayMillis,
+
+            @Min(1) @Max(60000)
+            int maxDelayMillis
+    ) {
+        public Hedging {
+            if (delayPercentile == 0) {
+                delayPercentile = 0.95;
+            }
+            if (minDelayMillis == 0) {
+                minDelayMillis = 100;
+            }
+            if (maxDelayMillis == 0) {
+                maxDelayMillis = 2000;
+            }
+        }
+    }
+
+    /**
+     * Provider base URLs. Overridable so load tests and benchmarks can point the
+     * providers at a local stub.
+     */
+    public record Endpoints(
+            String brave,
+            String serpapi,
+            String googleCustomSearch
+    ) {
+        public Endpoints {
+            if (brave == null || brave.isBlank()) {
+                brave = "https://api.search.brave.com/res/v1/web/search";
+            }
+            if (serpapi == null || serpapi.isBlank()) {
+                serpapi = "https://serpapi.com/search";
+            }
+            if (googleCustomSearch == null || googleCustomSearch.isBlank()) {
+                googleCustomSearch = "https://www.googleapis.com/customsearch/v1";
+            }
+        }
+
+        public String url(Provider provider) {
+            return switch (provider) {
+                case BRAVE -> brave;
+                case SERPAPI -> serpapi;
+                case GOOGLE_CUSTOM_SEARCH -> googleCustomSearch;
+            };
+        }
+    }
+
+    /**
+     * Refresh-ahead settings for the search result cache. {@code cacheExpirationSeconds}
+     * remains the hard TTL after which an entry is no longer served as a normal hit.
+     */
+    public record CacheSettings(
+            // Soft TTL: older entries are still served but reloaded in the background; 0 disables
+            @Min(0) @Max(86400)
+            int refreshAfterSeconds,
+
+            // How long past the hard TTL a stale entry may still be served while the provider fails
+            @Min(0) @Max(86400)
+            int staleIfErrorSeconds,
+
+            // Memory budget for cached results, enforced by estimated entry size
+            @Min(1) @Max(4096)
+            int maxWeightMb,
+
+            @Valid @DefaultValue
+            DiskTier disk
+    ) {
+        public CacheSettings {
+            if (maxWeightMb == 0) {
+                maxWeightMb = 64;
+            }
+            if (disk == null) {
+                disk = new DiskTier(false, null, 0, 0, 0);
+            }
+        }
+    }
+
+    /**
+     * Optional second cache tier: an append-only segment file on local disk that survives
+     * restarts and is used to warm the in-memory cache on startup.
+     */
+    public record DiskTier(
+            boolean enabled,
+
+            String directory,
+
+            @Min(1) @Max(65536)
+            int maxSizeMb,
+
+            // How many of the most frequently read entries to load into memory on startup
+            @Min(1) @Max(100000)
+            int warmStartEntries,
+
+            @Min(10) @Max(86400)
+            int compactionIntervalSeconds
+    ) {
+        public DiskTier {
+            if (directory == null || directory.isBlank()) {
+                directory = System.getProperty("java.io.tmpdir") + "/web-search-mcp-cache";
+            }
+            if (maxSizeMb == 0) {
+                maxSizeMb = 256;
+            }
+            if (warmStartEntries == 0) {
+                warmStartEntries = 500;
+            }
+            if (compactionIntervalSeconds == 0) {
+                compactionIntervalSeconds = 300;
+            }
+        }
+    }
+
+    /**
+     * Controls how queries are reduced to the canonical form used for cache keys and
+     * request coalescing. The original query text is always what gets sent upstream.
+     */
+    public record QueryNormalization(
+            @DefaultValue("true")
+            boolean enabled,
+
+            @DefaultValue("true")
+            boolean unicodeNormalization,
+
+            @DefaultValue("true")
+            boolean caseFolding,
+
+            @DefaultValue("true")
+            boolean stripPunctuation,
+
+            // Treat "a b" and "b a" as the same query; skipped when boolean operators are present
+            @DefaultValue("false")
+            boolean orderInsensitive,
+
+            // Operator prefixes (e.g. site:) whose tokens are kept verbatim
+            List<String> preservedOperators
+    ) {
+        private static final List<String> DEFAULT_PRESERVED_OPERATORS =
+                List.of("site", "filetype", "intitle", "inurl", "intext", "related", "before", "after");
+
+        public QueryNormalization {
+            if (preservedOperators == null) {
+                preservedOperators = DEFAULT_PRESERVED_OPERATORS;
+            }
+        }
+    }
+
+    /**
+     * Removal of repeated results from provider responses. Results are compared by canonical
+     * URL, ignoring scheme, {@code www.}, trailing slashes, AMP variants, fragments and
+     * tracking parameters; the best-ranked copy is kept.
+     */
+    public record Deduplication(
+            @DefaultValue("true")
+            boolean enabled,
+
+            // Also drop results whose titles are near-identical (SimHash) to a better-ranked one
+            @DefaultValue("false")
+            boolean nearDuplicateTitles,
+
+            // Differing SimHash bits (of 64) up to which two titles count as the same;
+            // a one-word edit moves a short title by about 8, unrelated titles differ in about 32
+            @Min(1) @Max(20)
+            int maxTitleDistance,
+
+            // Query parameters dropped from canonical URLs; a trailing * matches a prefix
+            List<String> trackingParameters
+    ) {
+        private static final List<String> DEFAULT_TRACKING_PARAMETERS = List.of(
+                "utm_*", "gclid", "dclid", "fbclid", "msclkid", "yclid", "mc_cid", "mc_eid", "igshid",
+                "_ga", "_gl", "ref_src", "spm", "amp");
+
+        public Deduplication {
+            if (maxTitleDistance == 0) {
+                maxTitleDistance = 10;
+            }
+            if (trackingParameters == null) {
+                trackingParameters = DEFAULT_TRACKING_PARAMETERS;
+            }
+        }
+    }
+
+    /**
+     * Per-provider circuit breakers and the order providers are tried in when one fails.
+     * Breakers use a count-based sliding window over the most recent calls.
+     */
+    public record Resilience(
+            // Providers to try, in order, after websearch.provider fails or its circuit is open
+            List<Provider> failover,
+
+            // Upstream calls slower than this fail (and count against the breaker)
+            @Min(1) @Max(120000)
+            int callTimeoutMillis,
+
+            @Min(2) @Max(1000)
+            int slidingWindowSize,
+
+            // Calls needed in the window before rates are evaluated
+            @Min(1) @Max(1000)
+            int minimumCalls,
+
+            // Percentage of failed calls (429, 5xx, timeouts, I/O errors) that opens the circuit
+            @Min(1) @Max(100)
+            int failureRateThreshold,
+
+            @Min(1) @Max(120000)
+            int slowCallMillis,
+
+            // Percentage of calls slower than slowCallMillis that opens the circuit
+            @Min(1) @Max(100)
+            int slowCallRateThreshold,
+
+            // How long an open circuit rejects calls before letting trial calls through
+            @Min(1) @Max(3600)
+            int openSeconds,
+
+            // Trial calls allowed while half-open; all must succeed to close the circuit
+            @Min(1) @Max(100)
+            int halfOpenCalls
+    ) {
+        public Resilience {
+            failover = failover == null ? List.of() : List.copyOf(failover);
+            if (callTimeoutMillis == 0) {
+                callTimeoutMillis = 10000;
+            }
+            if (slidingWindowSize == 0) {
+                slidingWindowSize = 20;
+            }
+            if (minimumCalls == 0) {
+                minimumCalls = 10;
+            }
+            if (failureRateThreshold == 0) {
+                failureRateThreshold = 50;
+            }
+            if (slowCallMillis == 0) {
+                slowCallMillis = 5000;
+            }
+            if (slowCallRateThreshold == 0) {
+                slowCallRateThreshold = 80;
+            }
+            if (openSeconds == 0) {
+                openSeconds = 30;
+            }
+            if (halfOpenCalls == 0) {
+                halfOpenCalls = 3;
+            }
+        }
+    }
+
+    /**
+     * Outbound limits that protect paid provider quotas. Providers without an entry in
+     * {@code providers} are not limited.
+     */
+    public record UpstreamLimits(
+            Map<Provider, @Valid ProviderQuota> providers,
+
+            // Requests waiting for a token per provider; further requests are shed
+            @Min(1) @Max(100000)
+            int queueCapacity,
+
+            // Longest a request may wait for a token; requests that can't get one in time are shed on arrival
+            @Min(1) @Max(60000)
+            int maxWaitMillis
+    ) {
+        public UpstreamLimits {
+            providers = providers == null ? Map.of() : Map.copyOf(providers);
+            if (queueCapacity == 0) {
+                queueCapacity = 100;
+            }
+            if (maxWaitMillis == 0) {
+                maxWaitMillis = 2000;
+            }
+        }
+    }
+
+    public record ProviderQuota(
+            @DecimalMin("0.001")
+            double requestsPerSecond,
+
+            // Tokens that can accumulate while idle; defaults to one second's worth
+            @Min(0)
+            int burst,
+
+            // Calls allowed per calendar month (UTC); 0 means no monthly cap. Counted cluster-wide
+            // and kept across restarts when cluster.redis-uri is set; otherwise each instance
+            // counts only its own calls, from zero at startup
+            @Min(0)
+            long monthlyQuota
+    ) {
+        public ProviderQuota {
+            if (burst == 0) {
+                burst = (int) Math.max(1, Math.ceil(requestsPerSecond));
+            }
+        }
+    }
+
+    /**
+     * HTTP client settings for provider calls. Every provider gets its own connection pool,
+     * sized by {@code maxConnections} unless {@code providers} overrides it.
+     */
+    public record ProviderHttp(
+            @Min(100) @Max(60000)
+            int connectTimeoutMillis,
+
+            // Longest wait for a response to start once the request is sent
+            @Min(100) @Max(120000)
+            int responseTimeoutMillis,
+
+            // Open connections per provider; with HTTP/2 each carries many concurrent requests.
+            // Over HTTP/1.1, size it to peak provider calls per second times provider latency
+            // in seconds: the default of 200 covers 500 concurrent sessions at up to ~1s latency
+            @Min(1) @Max(10000)
+            int maxConnections,
+
+            // Requests waiting for a connection per provider; further requests fail at once.
+            // Keep it above the number of concurrent sessions
+            @Min(1) @Max(100000)
+            int maxPendingAcquires,
+
+            // Longest wait for a connection; defaults to, and may not be shorter than, the
+            // response timeout, so a queued call isn't failed sooner than a slow one would be
+            @Min(1) @Max(120000)
+            int pendingAcquireTimeoutMillis,
+
+            // Idle connections are closed after this, before providers' load balancers drop them
+            @Min(1) @Max(3600)
+            int maxIdleSeconds,
+
+            // Connections are replaced after this, so DNS and load balancer changes take effect
+            @Min(1) @Max(86400)
+            int maxLifeSeconds,
+
+            // How often idle and expired connections are closed in the background
+            @Min(1) @Max(3600)
+            int evictIntervalSeconds,
+
+            // Offered over TLS through ALPN; providers that don't support it are spoken to over HTTP/1.1
+            @DefaultValue("true")
+            boolean http2,
+
+            // Ask for gzip responses and decompress them
+            @DefaultValue("true")
+            boolean compression,
+
+            // Connections opened to each configured provider at startup, before the app reports ready; 0 skips
+            @DefaultValue("2") @Min(0) @Max(100)
+            int warmUpConnections,
+
+            Map<Provider, @Valid ProviderPool> providers
+    ) {
+        public ProviderHttp {
+            if (connectTimeoutMillis == 0) {
+                connectTimeoutMillis = 2000;
+            }
+            if (responseTimeoutMillis == 0) {
+                responseTimeoutMillis = 10000;
+            }
+            if (maxConnections == 0) {
+                maxConnections = 200;
+            }
+            if (maxPendingAcquires == 0) {
+                maxPendingAcquires = 1000;
+            }
+            if (pendingAcquireTimeoutMillis == 0) {
+                pendingAcquireTimeoutMillis = responseTimeoutMillis;
+            }
+            if (pendingAcquireTimeoutMillis < responseTimeoutMillis) {
+                throw new IllegalArgumentException("websearch.provider-http.pending-acquire-timeout-millis must not be"
+                        + " shorter than websearch.provider-http.response-timeout-millis");
+            }
+            if (maxIdleSeconds == 0) {
+                maxIdleSeconds = 30;
+            }
+            if (maxLifeSeconds == 0) {
+                maxLifeSeconds = 300;
+            }
+            if (evictIntervalSeconds == 0) {
+                evictIntervalSeconds = 15;
+            }
+            providers = providers == null ? Map.of() : Map.copyOf(providers);
+        }
+
+        public int maxConnections(Provider provider) {
+            ProviderPool pool = providers.get(provider);
+            return pool == null || pool.maxConnections() == 0 ? maxConnections : pool.maxConnections();
+        }
+
+        public int maxPendingAcquires(Provider provider) {
+            ProviderPool pool = providers.get(provider);
+            return pool == null || pool.maxPendingAcquires() == 0 ? maxPendingAcquires : pool.maxPendingAcquires();
+        }
+    }
+
+    /**
+     * Pool limits for one provider; 0 falls back to the {@link ProviderHttp} setting.
+     */
+    public record ProviderPool(
+            @Min(0) @Max(10000)
+            int maxConnections,
+
+            @Min(0) @Max(100000)
+            int maxPendingAcquires
+    ) {
+    }
+
+    /**
+     * Limits for the {@code web_search_batch} tool.
+     */
+    public record Batch(
+            @Min(1) @Max(50)
+            int maxQueries,
+
+            // Queries of one batch searched at the same time
+            @Min(1) @Max(20)
+            int concurrency,
+
+            // Queries still running at the deadline are reported as timed out; the rest are returned
+            @Min(100) @Max(120000)
+            int deadlineMillis
+    ) {
+        public Batch {
+            if (maxQueries == 0) {
+                maxQueries = 10;
+            }
+            if (concurrency == 0) {
+                concurrency = 4;
+            }
+            if (deadlineMillis == 0) {
+                deadlineMillis = 15000;
+            }
+        }
+    }
+
+    /**
+     * Limits for the {@code fetch_pages} and {@code search_and_read} tools.
+     */
+    public record Fetch(
+            @Min(1) @Max(20)
+            int maxPages,
+
+            // Pages of one call fetched at the same time
+            @Min(1) @Max(20)
+            int concurrency,
+
+            // Open connections per remote host across all calls; further requests wait for one
+            @Min(1) @Max(64)
+            int maxConnectionsPerHost,
+
+            // Bodies are read up to this size and the rest is dropped
+            @Min(16) @Max(16384)
+            int maxKb,
+
+            @Min(100) @Max(1000000)
+            int maxTextChars,
+
+            @Min(100) @Max(120000)
+            int timeoutMillis,
+
+            @Min(1) @Max(100000)
+            int maxCachedPages,
+
+            // Cached pages older than this are revalidated with If-None-Match / If-Modified-Since
+            @Min(1) @Max(86400)
+            int revalidateAfterSeconds,
+
+            // Off by default so the tools can't be pointed at internal services
+            boolean allowPrivateAddresses
+    ) {
+        public Fetch {
+            if (maxPages == 0) {
+                maxPages = 5;
+            }
+            if (concurrency == 0) {
+                concurrency = 5;
+            }
+            if (maxConnectionsPerHost == 0) {
+                maxConnectionsPerHost = 2;
+            }
+            if (maxKb == 0) {
+                maxKb = 1024;
+            }
+            if (maxTextChars == 0) {
+                maxTextChars = 20000;
+            }
+            if (timeoutMillis == 0) {
+                timeoutMillis = 10000;
+            }
+            if (maxCachedPages == 0) {
+                maxCachedPages = 500;
+            }
+            if (revalidateAfterSeconds == 0) {
+                revalidateAfterSeconds = 300;
+            }
+        }
+    }
+
+    /**
+     * Inbound limits per MCP client. {@code rateLimitPerMinute} is the default; a client whose
+     * JWT carries {@code limitClaim} gets that many requests per minute instead.
+     */
+    public record ClientLimits(
+            String limitClaim,
+
+            // Clients whose limiter state is kept; the least recently seen are evicted first
+            @Min(100) @Max(10000000)
+            int maxClients
+    ) {
+        public ClientLimits {
+            if (limitClaim == null || limitClaim.isBlank()) {
+                limitClaim = "rate_limit_per_minute";
+            }
+            if (maxClients == 0) {
+                maxClients = 100000;
+            }
+        }
+    }
+
+    /**
+     * Store shared by all instances, for cluster-wide client rate limits and a shared result
+     * cache tier. Without {@code redisUri} every instance limits and caches on its own.
+     */
+    public record Cluster(
+            // e.g. redis://:password@host:6379/0 or rediss:// for TLS
+            String redisUri,
+
+            String keyPrefix,
+
+            // How often locally admitted requests are pushed to (and remote ones pulled from) the store
+            @Min(10) @Max(60000)
+            int syncIntervalMillis,
+
+            @Min(1) @Max(10000)
+            int timeoutMillis
+    ) {
+        public Cluster {
+            if (keyPrefix == null || keyPrefix.isBlank()) {
+                keyPrefix = "websearch:";
+            }
+            if (syncIntervalMillis == 0) {
+                syncIntervalMillis = 250;
+            }
+            if (timeoutMillis == 0) {
+                timeoutMillis = 200;
+            }
+        }
+    }
+
+    /**
+     * Verification of inbound JWTs in the cloud profile.
+     */
+    public record Jwt(
+            // Verified tokens cached until shortly before exp; 0 verifies every request
+            @DefaultValue("10000") @Min(0) @Max(10000000)
+            int cacheSize,
+
+            // How often the JWK set is refreshed in the background
+            @Min(10) @Max(86400)
+            int jwkRefreshSeconds,
+
+            // A token signed with an unknown key refetches the JWK set at most this often
+            @Min(1) @Max(3600)
+            int minRefreshSeconds
+    ) {
+        public Jwt {
+            if (jwkRefreshSeconds == 0) {
+                jwkRefreshSeconds = 300;
+            }
+            if (minRefreshSeconds == 0) {
+                minRefreshSeconds = 30;
+            }
+        }
     }
 
     public enum Provider {
@@ -0,0 +1,35 @@
+package com.example.websearchmcp.model;
+
+import java.util.List;
+
+/**
+ * Outcome of each query in a batch search, in the order the queries were given.
+ */
+public record BatchSearchResult(
+        List<QueryResult> results
+) {
+    public record QueryResult(
+            String query,
+            Status status,
+            SearchResult result,
+            String error
+    ) {
+        public static QueryResult ok(String query, SearchResult result) {
+            return new QueryResult(query, Status.OK, result, null);
+        }
+
+        public static QueryResult failed(String query, String error) {
+            return new QueryResult(query, Status.FAILED, null, error);
+        }
+
+        public static QueryResult timedOut(String query) {
+            return new QueryResult(query, Status.TIMED_OUT, null, "Search did not finish before the batch deadline");
+        }
+    }
+
+    public enum Status {
+        OK,
+        FAILED,
+        TIMED_OUT
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.websearchmcp.model;
+
+/**
+ * Readable text of a fetched web page, or why it couldn't be fetched.
+ */
+public record FetchedPage(
+        String url,
+        String title,
+        String text,
+        // The page was longer than the size or text limit and only its beginning is included
+        boolean truncated,
+        String error
+) {
+    public static FetchedPage ok(String url, String title, String text, boolean truncated) {
+        return new FetchedPage(url, title, text, truncated, null);
+    }
+
+    public static FetchedPage failed(String url, String error) {
+        return new FetchedPage(url, "", "", false, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
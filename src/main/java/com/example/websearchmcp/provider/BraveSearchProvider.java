@@ -0,0 +1,54 @@
+package com.example.websearchmcp.provider;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.SearchResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+@Component
+public class BraveSearchProvider implements SearchProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(BraveSearchProvider.class);
+
+    private final WebClient webClient;
+    private final WebSearchProperties properties;
+    private final StreamingResultParser parser;
+
+    public BraveSearchProvider(WebClient braveWebClient, WebSearchProperties properties, MeterRegistry meterRegistry) {
+        this.webClient = braveWebClient;
+        this.properties = properties;
+        this.parser = new StreamingResultParser("brave", "web.results", "title", "url", "description", "display_url",
+                StreamingResultParser.parseTimer(meterRegistry, Provider.BRAVE));
+    }
+
+    @Override
+    public Provider id() {
+        return Provider.BRAVE;
+    }
+
+    @Override
+    public Mono<SearchResult> search(String query, int count) {
+        log.info("Executing Brave search for query: {}", query);
+
+        String uri = UriComponentsBuilder.fromHttpUrl(properties.endpoints().brave())
+                .queryParam("q", query)
+                .queryParam("count", count)
+                .queryParam("safesearch", "moderate")
+                .build()
+                .toUriString();
+
+        return webClient.get()
+                .uri(uri)
+                .header("X-Subscription-Token", properties.apiKey(Provider.BRAVE))
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(body -> parser.parse(query, body));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.websearchmcp.provider;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.SearchResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+@Component
+public class GoogleCustomSearchProvider implements SearchProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleCustomSearchProvider.class);
+
+    // Google CSE max is 10 per request; larger searches are paged with the start offset
+    private static final int MAX_PAGE_SIZE = 10;
+
+    private final WebClient webClient;
+    private final WebSearchProperties properties;
+    private final StreamingResultParser parser;
+
+    public GoogleCustomSearchProvider(WebClient googleCustomSearchWebClient, WebSearchProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.webClient = googleCustomSearchWebClient;
+        this.properties = properties;
+        this.parser = new StreamingResultParser("google", "items", "title", "link", "snippet", "displayLink",
+                StreamingResultParser.parseTimer(meterRegistry, Provider.GOOGLE_CUSTOM_SEARCH));
+    }
+
+    @Override
+    public Provider id() {
+        return Provider.GOOGLE_CUSTOM_SEARCH;
+    }
+
+    @Override
+    public Mono<SearchResult> search(String query, int count) {
+        return searchPage(query, 0, count);
+    }
+
+    @Override
+    public int maxPageSize() {
+        return MAX_PAGE_SIZE;
+    }
+
+    @Override
+    public Mono<SearchResult> searchPage(String query, int offset, int count) {
+        log.info("Executing Google Custom Search for query: {} (offset {})", query, offset);
+
+        // Note: Google Custom Search requires both API key and CX (search engine ID)
+        // The API key in this case should be formatted as "apiKey:cx"
+        String[] keyParts = properties.apiKey(Provider.GOOGLE_CUSTOM_SEARCH).split(":");
+        if (keyParts.length != 2) {
+            return Mono.error(new IllegalArgumentException("Google Custom Search requires API key in format 'apiKey:cx'"));
+        }
+
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(properties.endpoints().googleCustomSearch())
+                .queryParam("q", query)
+                .queryParam("num", Math.min(count, MAX_PAGE_SIZE))
+                .queryParam("key", keyParts[0])
+                .queryParam("cx", keyParts[1]);
+        if (offset > 0) {
+            uri.queryParam("start", offset + 1); // 1-based
+        }
+
+        return webClient.get()
+                .uri(uri.build().toUriString())
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(body -> parser.parse(query, body));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.websearchmcp.provider;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.SearchResult;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking client for one upstream search API.
+ */
+public interface SearchProvider {
+
+    Provider id();
+
+    Mono<SearchResult> search(String query, int count);
+
+    /**
+     * Most results the upstream API returns for one request. Larger searches are split into
+     * pages by the caller and fetched with {@link #searchPage(String, int, int)}.
+     */
+    default int maxPageSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Fetches {@code count} results starting at the zero-based rank {@code offset}.
+     */
+    default Mono<SearchResult> searchPage(String query, int offset, int count) {
+        if (offset == 0) {
+            return search(query, count);
+        }
+        return Mono.error(new UnsupportedOperationException(id() + " does not support paged requests"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.websearchmcp.provider;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.SearchResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+@Component
+public class SerpApiSearchProvider implements SearchProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(SerpApiSearchProvider.class);
+
+    private final WebClient webClient;
+    private final WebSearchProperties properties;
+    private final StreamingResultParser parser;
+
+    public SerpApiSearchProvider(WebClient serpApiWebClient, WebSearchProperties properties, MeterRegistry meterRegistry) {
+        this.webClient = serpApiWebClient;
+        this.properties = properties;
+        this.parser = new StreamingResultParser("serpapi", "organic_results", "title", "link", "snippet", "displayed_link",
+                StreamingResultParser.parseTimer(meterRegistry, Provider.SERPAPI));
+    }
+
+    @Override
+    public Provider id() {
+        return Provider.SERPAPI;
+    }
+
+    @Override
+    public Mono<SearchResult> search(String query, int count) {
+        log.info("Executing SerpAPI search for query: {}", query);
+
+        String uri = UriComponentsBuilder.fromHttpUrl(properties.endpoints().serpapi())
+                .queryParam("q", query)
+                .queryParam("num", count)
+                .queryParam("api_key", properties.apiKey(Provider.SERPAPI))
+                .queryParam("engine", "google")
+                .build()
+                .toUriString();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(body -> parser.parse(query, body));
+    }
+}
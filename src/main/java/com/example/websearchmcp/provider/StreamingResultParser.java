@@ -0,0 +1,153 @@
+package com.example.websearchmcp.provider;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulls result items out of a provider response with Jackson's streaming parser instead of
+ * binding the whole body to a {@code JsonNode} tree.
+ *
+ * <p>Only the fields on the path to the results array are tokenized into values; every other
+ * subtree (news, videos, ads, knowledge graph, page maps) is skipped, and parsing stops as soon
+ * as the results array closes.
+ */
+final class StreamingResultParser {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder().build();
+
+    private final String source;
+    private final String[] resultsPath;
+    private final String titleField;
+    private final String urlField;
+    private final String descriptionField;
+    private final String displayUrlField;
+    private final Timer parseTime;
+
+    StreamingResultParser(String source, String resultsPath, String titleField, String urlField,
+                          String descriptionField, String displayUrlField) {
+        this(source, resultsPath, titleField, urlField, descriptionField, displayUrlField, null);
+    }
+
+    /**
+     * @param parseTime records the time to parse each response body, if not null
+     */
+    StreamingResultParser(String source, String resultsPath, String titleField, String urlField,
+                          String descriptionField, String displayUrlField, Timer parseTime) {
+        this.source = source;
+        this.resultsPath = resultsPath.split("\\.");
+        this.titleField = titleField;
+        this.urlField = urlField;
+        this.descriptionField = descriptionField;
+        this.displayUrlField = displayUrlField;
+        this.parseTime = parseTime;
+    }
+
+    static Timer parseTimer(MeterRegistry meterRegistry, Provider provider) {
+        return Timer.builder("websearch.provider.parse")
+                .description("Time to pull the results out of a provider response body")
+                .tag("provider", provider.name())
+                .serviceLevelObjectives(Duration.ofNanos(100_000), Duration.ofMillis(1), Duration.ofMillis(5),
+                        Duration.ofMillis(20))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Parses and releases the response body.
+     */
+    SearchResult parse(String query, DataBuffer body) {
+        long start = System.nanoTime();
+        try (InputStream in = body.asInputStream(true)) {
+            return parse(query, JSON_FACTORY.createParser(in));
+        } catch (IOException e) {
+            throw new DecodingException("Invalid " + source + " response: " + e.getMessage(), e);
+        } finally {
+            if (parseTime != null) {
+                parseTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    SearchResult parse(String query, byte[] body) {
+        try {
+            return parse(query, JSON_FACTORY.createParser(body));
+        } catch (IOException e) {
+            throw new DecodingException("Invalid " + source + " response: " + e.getMessage(), e);
+        }
+    }
+
+    private SearchResult parse(String query, JsonParser parser) throws IOException {
+        try (parser) {
+            List<SearchResultItem> items = new ArrayList<>();
+            if (parser.nextToken() == JsonToken.START_OBJECT && seekResults(parser, 0)) {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    if (token == JsonToken.START_OBJECT) {
+                        items.add(readItem(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return new SearchResult(query, items.size(), items);
+        }
+    }
+
+    /**
+     * Walks the object the parser is positioned in until it reaches the results array, leaving
+     * the parser on its {@code START_ARRAY}. Returns false if the path is missing or not an array.
+     */
+    private boolean seekResults(JsonParser parser, int depth) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals(resultsPath[depth])) {
+                if (depth == resultsPath.length - 1) {
+                    return value == JsonToken.START_ARRAY;
+                }
+                return value == JsonToken.START_OBJECT && seekResults(parser, depth + 1);
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private SearchResultItem readItem(JsonParser parser) throws IOException {
+        String title = "";
+        String url = "";
+        String description = "";
+        String displayUrl = "";
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+            } else if (name.equals(titleField)) {
+                title = parser.getValueAsString("");
+            } else if (name.equals(urlField)) {
+                url = parser.getValueAsString("");
+            } else if (name.equals(descriptionField)) {
+                description = parser.getValueAsString("");
+            } else if (name.equals(displayUrlField)) {
+                displayUrl = parser.getValueAsString("");
+            }
+        }
+
+        return new SearchResultItem(title, url, description, displayUrl, source);
+    }
+}
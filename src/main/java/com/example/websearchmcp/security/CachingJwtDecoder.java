@@ -0,0 +1,110 @@
+package com.example.websearchmcp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers tokens the delegate decoder has already verified, so a bearer token replayed on
+ * every request is parsed and signature-checked once rather than each time.
+ *
+ * <p>Entries are keyed by a SHA-256 hash of the raw token and kept until {@code expirySkew}
+ * before the token's {@code exp}; tokens without an expiry are not cached. Rejected tokens
+ * are never cached, and {@link #invalidateAll()} drops everything, e.g. when a signing key is
+ * withdrawn.
+ */
+class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Duration expirySkew;
+    private final Clock clock;
+    private final Cache<String, Jwt> verified;
+    private final Counter hits;
+    private final Counter misses;
+
+    CachingJwtDecoder(JwtDecoder delegate, long maxTokens, Duration expirySkew, Clock clock,
+                      MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.expirySkew = expirySkew;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxTokens)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                        return Math.max(0, remainingLife(jwt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, jwt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("websearch.jwt.cache")
+                .description("Bearer token lookups in the verified-token cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("websearch.jwt.cache")
+                .description("Bearer token lookups in the verified-token cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt jwt = verified.getIfPresent(key);
+        // Caffeine expires lazily, so check the deadline ourselves
+        if (jwt != null && remainingLife(jwt).isPositive()) {
+            hits.increment();
+            return jwt;
+        }
+
+        misses.increment();
+        jwt = delegate.decode(token);
+        if (remainingLife(jwt).isPositive()) {
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    private Duration remainingLife(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(clock.instant(), expiresAt.minus(expirySkew));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
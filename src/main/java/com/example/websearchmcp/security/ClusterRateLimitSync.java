@@ -0,0 +1,137 @@
+package com.example.websearchmcp.security;
+
+import com.example.websearchmcp.service.SharedStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares client rate limits across instances without a store round trip per request.
+ *
+ * <p>The local {@link GcraRateLimiter} stays authoritative for admission. Requests it admits
+ * are only counted here, and every sync interval the counts are pushed to per-client,
+ * per-minute counters in the {@link SharedStore} in one pipelined batch. Whatever the totals
+ * show other instances admitted since the last sync is then charged to the local limiter.
+ * A client can therefore overshoot its cluster-wide limit by at most one sync interval's
+ * worth of requests per instance.
+ *
+ * <p>If the store is unreachable, instances carry on limiting independently.
+ */
+class ClusterRateLimitSync implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRateLimitSync.class);
+
+    private static final long WINDOW_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final Duration COUNTER_TTL = Duration.ofMinutes(2);
+
+    private final GcraRateLimiter limiter;
+    private final SharedStore store;
+    private final Clock clock;
+    private final Cache<String, Tracked> tracked;
+    private ScheduledExecutorService scheduler;
+
+    ClusterRateLimitSync(GcraRateLimiter limiter, SharedStore store, long maxClients, Clock clock) {
+        this.limiter = limiter;
+        this.store = store;
+        this.clock = clock;
+        this.tracked = Caffeine.newBuilder().maximumSize(maxClients).build();
+    }
+
+    void start(Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sync, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Counts a request the local limiter admitted.
+     */
+    void recordAdmitted(String client, int limitPerMinute) {
+        Tracked entry = tracked.get(client, key -> new Tracked());
+        entry.limitPerMinute = limitPerMinute;
+        entry.pending.increment();
+    }
+
+    void sync() {
+        long now = clock.millis();
+        long minute = now / WINDOW_MILLIS;
+        Map<String, Long> deltas = new HashMap<>();
+        Map<String, Tracked> batch = new HashMap<>();
+        tracked.asMap().forEach((client, entry) -> {
+            long delta = entry.pending.sumThenReset();
+            if (delta > 0) {
+                entry.lastActiveMillis = now;
+            } else if (now - entry.lastActiveMillis > WINDOW_MILLIS) {
+                // Idle here for a whole window, so nothing admitted elsewhere still matters
+                tracked.asMap().remove(client, entry);
+                return;
+            }
+            String key = "ratelimit:" + client + ":" + minute;
+            deltas.put(key, delta);
+            batch.put(key, entry);
+            entry.sentDelta = delta;
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> totals;
+        try {
+            totals = store.incrementAll(deltas, COUNTER_TTL);
+        } catch (RuntimeException e) {
+            log.warn("Rate limit sync failed, limiting locally until the shared store is back: {}", e.getMessage());
+            return;
+        }
+
+        batch.forEach((key, entry) -> {
+            Long total = totals.get(key);
+            if (total == null) {
+                return;
+            }
+            long previous = entry.minute == minute ? entry.lastTotal : 0;
+            long remote = total - previous - entry.sentDelta;
+            entry.minute = minute;
+            entry.lastTotal = total;
+            if (remote > 0) {
+                limiter.consume(clientOf(key), remote, entry.limitPerMinute);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static String clientOf(String key) {
+        return key.substring("ratelimit:".length(), key.lastIndexOf(':'));
+    }
+
+    private static final class Tracked {
+
+        final LongAdder pending = new LongAdder();
+        volatile int limitPerMinute;
+
+        // Only touched by the sync thread
+        long minute = -1;
+        long lastTotal;
+        long sentDelta;
+        long lastActiveMillis;
+    }
+}
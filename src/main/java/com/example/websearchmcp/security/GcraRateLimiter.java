@@ -0,0 +1,92 @@
+package com.example.websearchmcp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client request limiter using the generic cell rate algorithm (GCRA).
+ *
+ * <p>Each client's only state is its theoretical arrival time (TAT): the instant at which its
+ * allowance would be fully restored. A request is admitted if it doesn't push the TAT more than
+ * one window ahead of now, and the TAT is advanced with a CAS, so admission never locks and
+ * allocates nothing once the client is known. This gives a smooth per-minute limit with a burst
+ * of up to the whole limit, without the double burst of a fixed window at its boundary.
+ */
+class GcraRateLimiter {
+
+    static final long WINDOW_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final Cache<String, AtomicLong> arrivals;
+    private final Ticker ticker;
+
+    GcraRateLimiter(long maxClients, Ticker ticker) {
+        this.ticker = ticker;
+        // Size-bounded only: access-time expiry costs more per request than the limiting itself,
+        // and an evicted client merely starts again from a full allowance
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    /**
+     * Tries to admit one request for the client under a limit of {@code limitPerMinute}.
+     *
+     * @return if positive, the request was admitted and this is the time in nanos until the
+     * client's allowance is fully restored; if negative, the request was rejected and its
+     * magnitude is the time in nanos until a request would be admitted
+     */
+    long tryAcquire(String client, int limitPerMinute) {
+        long interval = WINDOW_NANOS / limitPerMinute;
+        AtomicLong arrival = arrivals.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = ticker.read();
+        while (true) {
+            long tat = arrival.get();
+            long next = Math.max(tat, now) + interval;
+            long allowAt = next - WINDOW_NANOS;
+            if (allowAt > now) {
+                return now - allowAt;
+            }
+            if (arrival.compareAndSet(tat, next)) {
+                return next - now;
+            }
+        }
+    }
+
+    /**
+     * Charges the client for requests admitted elsewhere (by other instances), as if they had
+     * arrived now. The charge is capped at one full window.
+     */
+    void consume(String client, long requests, int limitPerMinute) {
+        AtomicLong arrival = arrivals.getIfPresent(client);
+        if (arrival == null || requests <= 0) {
+            return;
+        }
+        long interval = WINDOW_NANOS / limitPerMinute;
+        long now = ticker.read();
+        arrival.accumulateAndGet(requests * interval,
+                (tat, charge) -> Math.min(Math.max(tat, now) + charge, now + WINDOW_NANOS));
+    }
+
+    static boolean admitted(long decision) {
+        return decision > 0;
+    }
+
+    /**
+     * Requests the client could still send right now, given an admitted decision.
+     */
+    static int remaining(long decision, int limitPerMinute) {
+        return admitted(decision) ? (int) ((WINDOW_NANOS - decision) / (WINDOW_NANOS / limitPerMinute)) : 0;
+    }
+
+    /**
+     * Nanos until the client's allowance is fully restored.
+     */
+    static long resetNanos(long decision, int limitPerMinute) {
+        // A rejected request left the TAT exactly retry-after short of one interval past the window
+        return admitted(decision) ? decision : -decision + WINDOW_NANOS - WINDOW_NANOS / limitPerMinute;
+    }
+}
@@ -1,35 +1,67 @@
 package com.example.websearchmcp.security;
 
 import com.example.websearchmcp.config.WebSearchProperties;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.example.websearchmcp.service.SharedStore;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.security.Principal;
+import java.time.Clock;
 import java.time.Duration;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class RateLimitingFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(RateLimitingFilter.class);
 
-    private final Cache<String, AtomicInteger> requestCounts;
-    private final int maxRequestsPerMinute;
+    private final GcraRateLimiter limiter;
+    private final int defaultRequestsPerMinute;
+    private final String limitClaim;
+    private final ClusterRateLimitSync clusterSync;
+    private final Counter admitted;
+    private final Counter rejected;
 
-    public RateLimitingFilter(WebSearchProperties properties) {
-        this.maxRequestsPerMinute = properties.rateLimitPerMinute();
-        this.requestCounts = Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(1))
-                .build();
+    @Autowired
+    public RateLimitingFilter(WebSearchProperties properties, ObjectProvider<SharedStore> sharedStore,
+                              MeterRegistry meterRegistry) {
+        this(properties, Ticker.systemTicker(), sharedStore.getIfAvailable(), meterRegistry);
+        if (clusterSync != null) {
+            clusterSync.start(Duration.ofMillis(properties.cluster().syncIntervalMillis()));
+            log.info("Sharing client rate limits through the cluster store");
+        }
+    }
+
+    RateLimitingFilter(WebSearchProperties properties, Ticker ticker, SharedStore sharedStore,
+                       MeterRegistry meterRegistry) {
+        this.defaultRequestsPerMinute = properties.rateLimitPerMinute();
+        this.limitClaim = properties.clientLimits().limitClaim();
+        this.limiter = new GcraRateLimiter(properties.clientLimits().maxClients(), ticker);
+        this.clusterSync = sharedStore == null ? null
+                : new ClusterRateLimitSync(limiter, sharedStore, properties.clientLimits().maxClients(),
+                Clock.systemUTC());
+        this.admitted = Counter.builder("websearch.ratelimit.requests")
+                .description("MCP requests checked against the client's rate limit")
+                .tag("outcome", "admitted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("websearch.ratelimit.requests")
+                .description("MCP requests checked against the client's rate limit")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
     }
 
     @Override
@@ -42,19 +74,55 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         }
 
         String clientIdentifier = extractClientIdentifier(request);
-        AtomicInteger count = requestCounts.get(clientIdentifier, k -> new AtomicInteger(0));
+        int limit = requestsPerMinute(request.getUserPrincipal());
+        long decision = limiter.tryAcquire(clientIdentifier, limit);
+
+        response.setHeader("RateLimit-Limit", Integer.toString(limit));
+        response.setHeader("RateLimit-Remaining", Integer.toString(GcraRateLimiter.remaining(decision, limit)));
+        response.setHeader("RateLimit-Reset", Long.toString(toSeconds(GcraRateLimiter.resetNanos(decision, limit))));
 
-        if (count.incrementAndGet() > maxRequestsPerMinute) {
+        if (!GcraRateLimiter.admitted(decision)) {
+            rejected.increment();
             log.warn("Rate limit exceeded for client: {}", clientIdentifier);
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setHeader("Retry-After", "60");
+            response.setHeader("Retry-After", Long.toString(toSeconds(-decision)));
             response.getWriter().write("{\"error\": \"Rate limit exceeded. Please try again later.\"}");
             return;
         }
+        admitted.increment();
+        if (clusterSync != null) {
+            clusterSync.recordAdmitted(clientIdentifier, limit);
+        }
 
         filterChain.doFilter(request, response);
     }
 
+    @Override
+    public void destroy() {
+        if (clusterSync != null) {
+            clusterSync.close();
+        }
+    }
+
+    /**
+     * The limit carried in the client's JWT, if it has one, otherwise the configured default.
+     */
+    private int requestsPerMinute(Principal principal) {
+        if (principal instanceof JwtAuthenticationToken authentication) {
+            Object claim = authentication.getToken().getClaims().get(limitClaim);
+            try {
+                int limit = claim instanceof Number number ? number.intValue()
+                        : claim instanceof String text ? Integer.parseInt(text.trim()) : 0;
+                if (limit > 0) {
+                    return limit;
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring non-numeric {} claim for {}", limitClaim, principal.getName());
+            }
+        }
+        return defaultRequestsPerMinute;
+    }
+
     private String extractClientIdentifier(HttpServletRequest request) {
         // Try to get user principal from OAuth2 token
         if (request.getUserPrincipal() != null) {
@@ -64,10 +132,16 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         // Fall back to X-Forwarded-For header (common in Cloud Foundry)
         String forwardedFor = request.getHeader("X-Forwarded-For");
         if (forwardedFor != null && !forwardedFor.isBlank()) {
-            return forwardedFor.split(",")[0].trim();
+            int comma = forwardedFor.indexOf(',');
+            return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
         }
 
         // Last resort: use remote address
         return request.getRemoteAddr();
     }
+
+    // Header values are whole seconds, rounded up so clients never retry early
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
 }
@@ -0,0 +1,150 @@
+package com.example.websearchmcp.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWK set that is fetched ahead of use and refreshed in the background, so signature checks
+ * never wait on the identity provider for keys it already published.
+ *
+ * <p>A token signed with a key that isn't in the current set triggers one synchronous
+ * refresh, at most once per {@code minRefreshInterval}, in case the provider rotated keys
+ * since the last scheduled refresh. When a refresh drops a key, the rotation listener runs so
+ * that anything verified with the old key can be forgotten.
+ */
+class RefreshingJwkSource implements JWKSource<SecurityContext>, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingJwkSource.class);
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int READ_TIMEOUT_MILLIS = 5000;
+    private static final int SIZE_LIMIT_BYTES = 512 * 1024;
+
+    private final Callable<JWKSet> loader;
+    private final Duration minRefreshInterval;
+    private final Clock clock;
+    private volatile JWKSet keys;
+    private volatile long lastRefreshMillis;
+    private volatile Runnable rotationListener = () -> {};
+    private ScheduledExecutorService scheduler;
+
+    RefreshingJwkSource(Callable<JWKSet> loader, Duration minRefreshInterval, Clock clock) {
+        this.loader = loader;
+        this.minRefreshInterval = minRefreshInterval;
+        this.clock = clock;
+    }
+
+    static RefreshingJwkSource forUri(String jwkSetUri, Duration minRefreshInterval) {
+        URI uri = URI.create(jwkSetUri);
+        return new RefreshingJwkSource(
+                () -> JWKSet.load(uri.toURL(), CONNECT_TIMEOUT_MILLIS, READ_TIMEOUT_MILLIS, SIZE_LIMIT_BYTES),
+                minRefreshInterval, Clock.systemUTC());
+    }
+
+    /**
+     * Fetches the keys now and then every {@code interval} on a background thread.
+     */
+    void start(Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwk-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void onRotation(Runnable listener) {
+        this.rotationListener = listener;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        JWKSet current = keys;
+        if (current == null) {
+            current = refreshIfDue();
+        }
+        List<JWK> matches = selector.select(current);
+        if (matches.isEmpty()) {
+            // Possibly signed with a key published since the last refresh
+            matches = selector.select(refreshIfDue());
+        }
+        return matches;
+    }
+
+    private synchronized JWKSet refreshIfDue() throws KeySourceException {
+        if (clock.millis() - lastRefreshMillis >= minRefreshInterval.toMillis()) {
+            if (keys == null) {
+                refresh();
+            } else {
+                refreshQuietly();
+            }
+        }
+        if (keys == null) {
+            throw new KeySourceException("JWK set is not available yet");
+        }
+        return keys;
+    }
+
+    synchronized void refresh() throws KeySourceException {
+        lastRefreshMillis = clock.millis();
+        JWKSet loaded;
+        try {
+            loaded = loader.call();
+        } catch (Exception e) {
+            throw new KeySourceException("Failed to load JWK set: " + e.getMessage(), e);
+        }
+
+        JWKSet previous = keys;
+        keys = loaded;
+        if (previous != null && !thumbprints(loaded).containsAll(thumbprints(previous))) {
+            log.info("JWK set rotated, {} keys now published", loaded.size());
+            rotationListener.run();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (KeySourceException e) {
+            // Keep verifying with the keys we have until the provider is reachable again
+            log.warn("JWK set refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private static Set<String> thumbprints(JWKSet set) {
+        Set<String> thumbprints = new HashSet<>();
+        for (JWK key : set.getKeys()) {
+            try {
+                thumbprints.add(key.computeThumbprint().toString());
+            } catch (Exception e) {
+                thumbprints.add(key.toJSONString());
+            }
+        }
+        return thumbprints;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.example.websearchmcp.security;
 
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.pivotal.cfenv.core.CfCredentials;
 import io.pivotal.cfenv.core.CfEnv;
 import io.pivotal.cfenv.core.CfService;
@@ -20,6 +26,8 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -49,8 +57,9 @@ public class SecurityConfig {
     @Bean
     @Profile("cloud")
     @ConditionalOnCloudPlatform(CloudPlatform.CLOUD_FOUNDRY)
-    public JwtDecoder cloudJwtDecoder(
-            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}") String configuredJwkSetUri) {
+    RefreshingJwkSource cloudJwkSource(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}") String configuredJwkSetUri,
+            WebSearchProperties properties) {
 
         String jwkSetUri = configuredJwkSetUri;
 
@@ -65,7 +74,34 @@ public class SecurityConfig {
         }
 
         log.info("Configuring JWT decoder with JWK Set URI: {}", jwkSetUri);
-        return NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+        WebSearchProperties.Jwt jwt = properties.jwt();
+        RefreshingJwkSource jwkSource = RefreshingJwkSource.forUri(jwkSetUri,
+                Duration.ofSeconds(jwt.minRefreshSeconds()));
+        jwkSource.start(Duration.ofSeconds(jwt.jwkRefreshSeconds()));
+        return jwkSource;
+    }
+
+    @Bean
+    @Profile("cloud")
+    @ConditionalOnCloudPlatform(CloudPlatform.CLOUD_FOUNDRY)
+    public JwtDecoder cloudJwtDecoder(RefreshingJwkSource jwkSource, MeterRegistry meterRegistry,
+                                      WebSearchProperties properties) {
+        // Same setup as NimbusJwtDecoder.withJwkSetUri, but over keys that are refreshed in the background
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder verifying = new NimbusJwtDecoder(processor);
+
+        int cacheSize = properties.jwt().cacheSize();
+        if (cacheSize == 0) {
+            return verifying;
+        }
+        // Forget tokens shortly before exp, never later than the validator would start rejecting them
+        CachingJwtDecoder decoder = new CachingJwtDecoder(verifying, cacheSize, Duration.ofSeconds(5),
+                Clock.systemUTC(), meterRegistry);
+        jwkSource.onRotation(decoder::invalidateAll);
+        return decoder;
     }
 
     private String getJwkSetUriFromVcapServices() {
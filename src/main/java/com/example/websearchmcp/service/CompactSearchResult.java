@@ -0,0 +1,130 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packed, cache-resident form of a {@link SearchResult}. All item text is stored as one
+ * UTF-8 byte array with an offset table, and the per-item {@code source} strings are
+ * interned, so an entry costs a handful of objects instead of five strings per item.
+ * Items are decoded back into records only when read.
+ */
+final class CompactSearchResult {
+
+    private static final int FIELDS_PER_ITEM = 4;
+    // Rough per-instance cost of the object headers and fields around the arrays
+    private static final int FIXED_OVERHEAD_BYTES = 96;
+
+    private final String query;
+    private final int totalResults;
+    private final byte[] text;
+    private final int[] offsets;
+    private final String[] sources;
+
+    private CompactSearchResult(String query, int totalResults, byte[] text, int[] offsets, String[] sources) {
+        this.query = query;
+        this.totalResults = totalResults;
+        this.text = text;
+        this.offsets = offsets;
+        this.sources = sources;
+    }
+
+    static CompactSearchResult encode(SearchResult result) {
+        List<SearchResultItem> items = result.results();
+        int[] offsets = new int[items.size() * FIELDS_PER_ITEM + 1];
+        String[] sources = new String[items.size()];
+        byte[][] fields = new byte[items.size() * FIELDS_PER_ITEM][];
+
+        int length = 0;
+        for (int i = 0; i < items.size(); i++) {
+            SearchResultItem item = items.get(i);
+            fields[i * FIELDS_PER_ITEM] = utf8(item.title());
+            fields[i * FIELDS_PER_ITEM + 1] = utf8(item.url());
+            fields[i * FIELDS_PER_ITEM + 2] = utf8(item.description());
+            fields[i * FIELDS_PER_ITEM + 3] = utf8(item.displayUrl());
+            sources[i] = item.source() == null ? null : item.source().intern();
+        }
+        for (int i = 0; i < fields.length; i++) {
+            offsets[i] = length;
+            length += fields[i].length;
+        }
+        offsets[fields.length] = length;
+
+        byte[] text = new byte[length];
+        for (int i = 0; i < fields.length; i++) {
+            System.arraycopy(fields[i], 0, text, offsets[i], fields[i].length);
+        }
+        return new CompactSearchResult(result.query(), result.totalResults(), text, offsets, sources);
+    }
+
+    static CompactSearchResult of(String query, int totalResults, byte[] text, int[] offsets, String[] sources) {
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = sources[i] == null ? null : sources[i].intern();
+        }
+        return new CompactSearchResult(query, totalResults, text, offsets, sources);
+    }
+
+    int size() {
+        return sources.length;
+    }
+
+    String query() {
+        return query;
+    }
+
+    int totalResults() {
+        return totalResults;
+    }
+
+    byte[] text() {
+        return text;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    String[] sources() {
+        return sources;
+    }
+
+    /**
+     * Decodes the first {@code limit} items; the full result when {@code limit} covers them all.
+     */
+    SearchResult decode(int limit) {
+        int count = Math.min(limit, size());
+        List<SearchResultItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int field = i * FIELDS_PER_ITEM;
+            items.add(new SearchResultItem(
+                    field(field),
+                    field(field + 1),
+                    field(field + 2),
+                    field(field + 3),
+                    sources[i]
+            ));
+        }
+        int total = count < size() ? count : totalResults;
+        return new SearchResult(query, total, List.copyOf(items));
+    }
+
+    /**
+     * Approximate retained heap size in bytes, used as the cache entry weight.
+     */
+    int estimatedBytes() {
+        int queryBytes = query == null ? 0 : query.length();
+        return FIXED_OVERHEAD_BYTES + queryBytes + text.length + offsets.length * 4 + sources.length * 4;
+    }
+
+    private String field(int index) {
+        return new String(text, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.QueryNormalization;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Default canonicalizer: Unicode NFKC, case folding, whitespace collapsing, stripping of
+ * sentence punctuation around words and, optionally, order-insensitive token sets.
+ * Quoted phrases, exclusions ({@code -term}), boolean operators and configured search
+ * operators such as {@code site:} are kept intact because providers interpret them.
+ */
+public class DefaultQueryCanonicalizer implements QueryCanonicalizer {
+
+    // Only punctuation that never changes the meaning of a term; "c#", "c++" and "node.js" survive
+    private static final String STRIPPABLE = ".,;:!?¡¿…'\"‘’“”«»()[]{}";
+    private static final Set<String> BOOLEAN_OPERATORS = Set.of("OR", "AND", "NOT", "|");
+
+    private final QueryNormalization settings;
+    private final Set<String> preservedOperators;
+
+    public DefaultQueryCanonicalizer(QueryNormalization settings) {
+        this.settings = settings;
+        this.preservedOperators = settings.preservedOperators().stream()
+                .map(op -> op.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public String canonicalize(String query) {
+        if (!settings.enabled()) {
+            return query.strip();
+        }
+
+        String text = settings.unicodeNormalization() ? Normalizer.normalize(query, Normalizer.Form.NFKC) : query;
+
+        List<String> tokens = new ArrayList<>();
+        boolean positional = false;
+        for (String token : tokenize(text)) {
+            if (BOOLEAN_OPERATORS.contains(token)) {
+                tokens.add(token);
+                positional = true;
+                continue;
+            }
+            String canonical = canonicalizeToken(token);
+            if (!canonical.isEmpty()) {
+                tokens.add(canonical);
+            }
+        }
+
+        if (settings.orderInsensitive() && !positional) {
+            return String.join(" ", new TreeSet<>(tokens));
+        }
+        return String.join(" ", tokens);
+    }
+
+    private String canonicalizeToken(String token) {
+        String folded = settings.caseFolding() ? token.toLowerCase(Locale.ROOT) : token;
+
+        if (isQuoted(token) || isExclusion(token) || isOperator(folded)) {
+            return folded;
+        }
+        return settings.stripPunctuation() ? stripPunctuation(folded) : folded;
+    }
+
+    private boolean isOperator(String token) {
+        int colon = token.indexOf(':');
+        return colon > 0 && colon < token.length() - 1
+                && preservedOperators.contains(token.substring(0, colon).toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isQuoted(String token) {
+        return token.length() > 1 && token.charAt(0) == '"';
+    }
+
+    private static boolean isExclusion(String token) {
+        return token.length() > 1 && token.charAt(0) == '-';
+    }
+
+    private static String stripPunctuation(String token) {
+        int start = 0;
+        int end = token.length();
+        while (start < end && STRIPPABLE.indexOf(token.charAt(start)) >= 0) {
+            start++;
+        }
+        while (end > start && STRIPPABLE.indexOf(token.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return token.substring(start, end);
+    }
+
+    /**
+     * Splits on whitespace, keeping a double-quoted phrase (with its quotes and a single
+     * space between its words) together as one token.
+     */
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                if (inQuotes && !current.isEmpty() && current.charAt(current.length() - 1) == ' ') {
+                    current.setLength(current.length() - 1);
+                }
+                inQuotes = !inQuotes;
+                current.append(c);
+            } else if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                if (inQuotes) {
+                    if (!current.isEmpty() && current.charAt(current.length() - 1) != ' '
+                            && current.charAt(current.length() - 1) != '"') {
+                        current.append(' ');
+                    }
+                } else if (!current.isEmpty()) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.service.SearchResultCache.Entry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, on-disk second tier for the search result cache.
+ *
+ * <p>Entries are appended to a single segment file as length-prefixed, CRC-checked
+ * records; an in-memory index maps each key to its latest record. Superseded and expired
+ * records are dropped by a background compaction that rewrites the live set to a new
+ * segment and atomically swaps it in. A torn record at the tail (e.g. after a crash) is
+ * truncated on startup.
+ *
+ * <p>{@link #writeBehind} queues appends on the store's background thread, in order, so callers
+ * on event loop threads never wait on the file system.
+ */
+public class DiskResultStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(DiskResultStore.class);
+
+    private static final String SEGMENT_FILE = "search-results.seg";
+    private static final String COMPACTION_FILE = "search-results.seg.compact";
+    private static final int RECORD_HEADER_BYTES = 4;
+    private static final int RECORD_TRAILER_BYTES = 4;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final Clock clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService background;
+
+    private volatile Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+    private volatile FileChannel channel;
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    public DiskResultStore(Path directory, long maxBytes, Duration compactionInterval, Clock clock) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+            this.channel = FileChannel.open(directory.resolve(SEGMENT_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open disk cache in " + directory, e);
+        }
+
+        this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-cache-disk");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = compactionInterval.toMillis();
+        background.scheduleWithFixedDelay(this::compactIfNeeded, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the latest live record for {@code key}, or {@code null} if there is none or it
+     * has expired.
+     */
+    Entry read(String key) {
+        lock.readLock().lock();
+        try {
+            IndexEntry indexEntry = index.get(key);
+            if (indexEntry == null) {
+                return null;
+            }
+            if (indexEntry.expiresAtMillis() <= clock.millis()) {
+                if (index.remove(key, indexEntry)) {
+                    liveBytes.addAndGet(-indexEntry.length());
+                }
+                return null;
+            }
+            indexEntry.hits().incrementAndGet();
+            return decode(readRecord(indexEntry)).entry();
+        } catch (IOException e) {
+            log.warn("Failed to read disk cache entry for key: {}", key, e);
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the entry on the background thread. Writes queued after {@link #close()} are dropped.
+     */
+    void writeBehind(String key, Entry entry, long expiresAtMillis) {
+        try {
+            background.execute(() -> write(key, entry, expiresAtMillis));
+        } catch (RejectedExecutionException e) {
+            log.debug("Disk cache is closed, not writing entry for key: {}", key);
+        }
+    }
+
+    /**
+     * Waits for the writes queued so far to reach the segment file.
+     */
+    void flush() {
+        try {
+            background.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            log.debug("Disk cache flush skipped: {}", e.getMessage());
+        }
+    }
+
+    void write(String key, Entry entry, long expiresAtMillis) {
+        lock.readLock().lock();
+        try {
+            IndexEntry previous = index.get(key);
+            int hits = previous == null ? 0 : previous.hits().get();
+            byte[] record = encode(key, entry, expiresAtMillis, hits);
+            long position = writePosition.getAndAdd(record.length);
+            writeFully(channel, ByteBuffer.wrap(record), position);
+
+            IndexEntry replaced = index.put(key, new IndexEntry(position, record.length, expiresAtMillis,
+                    new AtomicInteger(hits)));
+            liveBytes.addAndGet(record.length - (replaced == null ? 0 : replaced.length()));
+        } catch (IOException e) {
+            log.warn("Failed to write disk cache entry for key: {}", key, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records a read served by the memory tier so hotness survives a restart.
+     */
+    void touch(String key) {
+        IndexEntry indexEntry = index.get(key);
+        if (indexEntry != null) {
+            indexEntry.hits().incrementAndGet();
+        }
+    }
+
+    /**
+     * Visits up to {@code limit} live entries, most frequently read first.
+     */
+    void forEachHottest(int limit, BiConsumer<String, Entry> consumer) {
+        long now = clock.millis();
+        List<Map.Entry<String, IndexEntry>> hottest = index.entrySet().stream()
+                .filter(e -> e.getValue().expiresAtMillis() > now)
+                .sorted(Comparator.comparingInt((Map.Entry<String, IndexEntry> e) -> e.getValue().hits().get())
+                        .reversed())
+                .limit(limit)
+                .toList();
+
+        for (Map.Entry<String, IndexEntry> hot : hottest) {
+            Entry entry = read(hot.getKey());
+            if (entry != null) {
+                consumer.accept(hot.getKey(), entry);
+            }
+        }
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    long segmentBytes() {
+        return writePosition.get();
+    }
+
+    void compactIfNeeded() {
+        long total = writePosition.get();
+        if (total > maxBytes || total > 2 * liveBytes.get() + RECORD_HEADER_BYTES) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the live, unexpired records into a fresh segment, dropping the least read
+     * entries if the live set alone exceeds the size budget.
+     */
+    void compact() {
+        lock.writeLock().lock();
+        try {
+            long now = clock.millis();
+            List<Map.Entry<String, IndexEntry>> live = index.entrySet().stream()
+                    .filter(e -> e.getValue().expiresAtMillis() > now)
+                    .sorted(Comparator.comparingInt((Map.Entry<String, IndexEntry> e) -> e.getValue().hits().get())
+                            .reversed())
+                    .toList();
+
+            Path compactPath = directory.resolve(COMPACTION_FILE);
+            Map<String, IndexEntry> newIndex = new ConcurrentHashMap<>();
+            long position = 0;
+            try (FileChannel out = FileChannel.open(compactPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (Map.Entry<String, IndexEntry> e : live) {
+                    IndexEntry old = e.getValue();
+                    // Re-encode so the persisted hit count reflects reads since the last write
+                    Decoded decoded = decode(readRecord(old));
+                    byte[] record = encode(e.getKey(), decoded.entry(), old.expiresAtMillis(), old.hits().get());
+                    if (position + record.length > maxBytes) {
+                        break;
+                    }
+                    writeFully(out, ByteBuffer.wrap(record), position);
+                    newIndex.put(e.getKey(), new IndexEntry(position, record.length, old.expiresAtMillis(),
+                            new AtomicInteger(old.hits().get())));
+                    position += record.length;
+                }
+                out.force(true);
+            }
+
+            channel.close();
+            Path segment = directory.resolve(SEGMENT_FILE);
+            Files.move(compactPath, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            log.debug("Compacted disk cache from {} to {} bytes ({} entries)", writePosition.get(), position,
+                    newIndex.size());
+            index = newIndex;
+            writePosition.set(position);
+            liveBytes.set(position);
+        } catch (IOException e) {
+            log.warn("Disk cache compaction failed", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        // Let queued writes land; a compaction in progress finishes first
+        background.shutdown();
+        try {
+            if (!background.awaitTermination(10, TimeUnit.SECONDS)) {
+                background.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            background.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close disk cache", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long now = clock.millis();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+
+        while (position + RECORD_HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            int payloadLength = header.getInt(0);
+            int recordLength = RECORD_HEADER_BYTES + payloadLength + RECORD_TRAILER_BYTES;
+            if (payloadLength <= 0 || position + recordLength > size) {
+                break;
+            }
+
+            Decoded decoded;
+            try {
+                decoded = decode(readRecord(new IndexEntry(position, recordLength, 0, null)));
+            } catch (IOException e) {
+                break;
+            }
+
+            IndexEntry replaced = null;
+            if (decoded.expiresAtMillis() > now) {
+                replaced = index.put(decoded.key(), new IndexEntry(position, recordLength, decoded.expiresAtMillis(),
+                        new AtomicInteger(decoded.hits())));
+                liveBytes.addAndGet(recordLength);
+            } else {
+                replaced = index.remove(decoded.key());
+            }
+            if (replaced != null) {
+                liveBytes.addAndGet(-replaced.length());
+            }
+            position += recordLength;
+        }
+
+        if (position < size) {
+            log.warn("Truncating {} bytes of unreadable records from disk cache", size - position);
+            channel.truncate(position);
+        }
+        writePosition.set(position);
+        log.info("Opened disk cache in {} with {} live entries", directory, index.size());
+    }
+
+    private byte[] readRecord(IndexEntry indexEntry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(indexEntry.length());
+        readFully(channel, buffer, indexEntry.position());
+        return buffer.array();
+    }
+
+    // Also the wire format of the shared cache tier (see SearchResultCache)
+    static byte[] encode(String key, Entry entry, long expiresAtMillis, int hits) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(entry.result().estimatedBytes() + 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // payload length, patched below
+
+        CompactSearchResult result = entry.result();
+        out.writeUTF(key);
+        out.writeLong(entry.fetchedAtMillis());
+        out.writeLong(expiresAtMillis);
+        out.writeInt(entry.requestedCount());
+        out.writeInt(hits);
+        writeNullableUtf(out, result.query());
+        out.writeInt(result.totalResults());
+        out.writeInt(result.size());
+        for (int offset : result.offsets()) {
+            out.writeInt(offset);
+        }
+        out.writeInt(result.text().length);
+        out.write(result.text());
+        for (String source : result.sources()) {
+            writeNullableUtf(out, source);
+        }
+        out.writeBoolean(entry.exhausted());
+        out.flush();
+
+        byte[] record = bytes.toByteArray();
+        int payloadLength = record.length - RECORD_HEADER_BYTES;
+        ByteBuffer.wrap(record).putInt(0, payloadLength);
+
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER_BYTES, payloadLength);
+        ByteBuffer withTrailer = ByteBuffer.allocate(record.length + RECORD_TRAILER_BYTES);
+        withTrailer.put(record).putInt((int) crc.getValue());
+        return withTrailer.array();
+    }
+
+    static Decoded decode(byte[] record) throws IOException {
+        int payloadLength = record.length - RECORD_HEADER_BYTES - RECORD_TRAILER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER_BYTES, payloadLength);
+        if ((int) crc.getValue() != ByteBuffer.wrap(record).getInt(record.length - RECORD_TRAILER_BYTES)) {
+            throw new IOException("Disk cache record failed checksum");
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, RECORD_HEADER_BYTES, payloadLength));
+        String key = in.readUTF();
+        long fetchedAtMillis = in.readLong();
+        long expiresAtMillis = in.readLong();
+        int requestedCount = in.readInt();
+        int hits = in.readInt();
+        String query = readNullableUtf(in);
+        int totalResults = in.readInt();
+        int itemCount = in.readInt();
+        int[] offsets = new int[itemCount * 4 + 1];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = in.readInt();
+        }
+        byte[] text = new byte[in.readInt()];
+        in.readFully(text);
+        String[] sources = new String[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            sources[i] = readNullableUtf(in);
+        }
+        // Records written before the flag existed end here; treating them as not exhausted costs at most one fetch
+        boolean exhausted = in.available() > 0 && in.readBoolean();
+
+        CompactSearchResult result = CompactSearchResult.of(query, totalResults, text, offsets, sources);
+        return new Decoded(key, new Entry(result, requestedCount, exhausted, fetchedAtMillis, 0), expiresAtMillis,
+                hits);
+    }
+
+    private static void writeNullableUtf(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUtf(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of disk cache segment");
+            }
+            position += read;
+        }
+    }
+
+    private record IndexEntry(long position, int length, long expiresAtMillis, AtomicInteger hits) {}
+
+    record Decoded(String key, Entry entry, long expiresAtMillis, int hits) {}
+}
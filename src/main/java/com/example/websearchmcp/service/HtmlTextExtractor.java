@@ -0,0 +1,288 @@
+package com.example.websearchmcp.service;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns an HTML (or plain text) body into readable text as its bytes arrive, so a page is
+ * never held in memory as a whole.
+ *
+ * <p>Bytes are decoded chunk by chunk, carrying any multi-byte sequence split across chunks
+ * over to the next one, and fed through a small tag-skipping state machine. The contents of
+ * script, style and similar elements are dropped, block-level elements become line breaks,
+ * runs of whitespace collapse to one space and common character references are decoded.
+ * Once {@code maxChars} of text have been extracted the rest is discarded, and
+ * {@link #isFull()} tells the caller it can stop reading.
+ */
+final class HtmlTextExtractor {
+
+    private static final int MAX_TITLE_CHARS = 300;
+    private static final int MAX_TAG_CHARS = 16;
+    private static final int MAX_ENTITY_CHARS = 10;
+
+    private static final Set<String> SKIPPED = Set.of(
+            "script", "style", "noscript", "template", "svg", "iframe", "object");
+    private static final Set<String> BLOCKS = Set.of(
+            "p", "div", "br", "li", "ul", "ol", "dl", "dt", "dd", "h1", "h2", "h3", "h4", "h5", "h6",
+            "tr", "table", "section", "article", "header", "footer", "nav", "aside", "main",
+            "blockquote", "pre", "hr", "figure", "figcaption", "form", "address");
+
+    private enum State { TEXT, TAG, COMMENT, SKIPPED, ENTITY }
+
+    private final CharsetDecoder decoder;
+    private final ByteBuffer carry = ByteBuffer.allocate(16);
+    private final CharBuffer chars = CharBuffer.allocate(8192);
+    private final boolean markup;
+    private final int maxChars;
+
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder title = new StringBuilder();
+    private final StringBuilder tag = new StringBuilder();
+    private final StringBuilder entity = new StringBuilder();
+
+    private State state = State.TEXT;
+    private char quote;
+    private String skippedEnd;
+    private int skippedMatched;
+    private int commentDashes;
+    private boolean inTitle;
+    private boolean pendingSpace;
+    private boolean pendingBreak;
+    private boolean full;
+
+    /**
+     * @param markup whether the body is HTML; plain text is only whitespace-normalized
+     */
+    HtmlTextExtractor(Charset charset, boolean markup, int maxChars) {
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.markup = markup;
+        this.maxChars = maxChars;
+    }
+
+    void feed(ByteBuffer bytes) {
+        // Finish a sequence split across the previous chunk first
+        while (carry.position() > 0 && bytes.hasRemaining() && !isFull()) {
+            carry.put(bytes.get()).flip();
+            decode(carry, false);
+            carry.compact();
+        }
+        if (carry.position() == 0) {
+            decode(bytes, false);
+            if (bytes.hasRemaining() && !isFull()) {
+                carry.put(bytes);
+            }
+        }
+    }
+
+    /**
+     * Whether {@code maxChars} of text have been extracted, so the rest of the body can be skipped.
+     */
+    boolean isFull() {
+        return full;
+    }
+
+    String title() {
+        return title.toString().strip().replaceAll("\\s+", " ");
+    }
+
+    String text() {
+        return text.toString();
+    }
+
+    private void decode(ByteBuffer in, boolean endOfInput) {
+        while (!isFull()) {
+            boolean overflow = decoder.decode(in, chars, endOfInput).isOverflow();
+            chars.flip();
+            while (chars.hasRemaining() && !isFull()) {
+                process(chars.get());
+            }
+            chars.clear();
+            if (!overflow) {
+                return;
+            }
+        }
+    }
+
+    private void process(char c) {
+        switch (state) {
+            case TEXT -> {
+                if (markup && c == '<') {
+                    state = State.TAG;
+                    tag.setLength(0);
+                    quote = 0;
+                } else if (markup && c == '&') {
+                    state = State.ENTITY;
+                    entity.setLength(0);
+                } else {
+                    append(c);
+                }
+            }
+            case TAG -> tag(c);
+            case ENTITY -> entity(c);
+            case COMMENT -> {
+                if (c == '>' && commentDashes >= 2) {
+                    state = State.TEXT;
+                }
+                commentDashes = c == '-' ? commentDashes + 1 : 0;
+            }
+            case SKIPPED -> skipped(c);
+        }
+    }
+
+    private void tag(char c) {
+        if (quote != 0) {
+            if (c == quote) {
+                quote = 0;
+            }
+            return;
+        }
+        if (tag.isEmpty() && !Character.isLetter(c) && c != '/' && c != '!' && c != '?') {
+            // A bare '<' in text, not a tag
+            state = State.TEXT;
+            append('<');
+            process(c);
+            return;
+        }
+        if (c == '>') {
+            state = State.TEXT;
+            endTag();
+        } else if (c == '"' || c == '\'') {
+            quote = c;
+        } else if (tag.length() < MAX_TAG_CHARS) {
+            tag.append(c);
+            if (tag.length() == 3 && tag.charAt(0) == '!' && tag.charAt(1) == '-' && tag.charAt(2) == '-') {
+                state = State.COMMENT;
+                commentDashes = 0;
+            }
+        }
+    }
+
+    private void endTag() {
+        boolean closing = !tag.isEmpty() && tag.charAt(0) == '/';
+        int start = closing ? 1 : 0;
+        int end = start;
+        while (end < tag.length() && Character.isLetterOrDigit(tag.charAt(end))) {
+            end++;
+        }
+        String name = tag.substring(start, end).toLowerCase(Locale.ROOT);
+
+        if (!closing && SKIPPED.contains(name)) {
+            state = State.SKIPPED;
+            skippedEnd = "</" + name;
+            skippedMatched = 0;
+        } else if (name.equals("title")) {
+            inTitle = !closing;
+        } else if (BLOCKS.contains(name)) {
+            pendingBreak = true;
+        }
+    }
+
+    private void skipped(char c) {
+        if (Character.toLowerCase(c) == skippedEnd.charAt(skippedMatched)) {
+            if (++skippedMatched == skippedEnd.length()) {
+                state = State.TAG;
+                tag.setLength(0);
+                tag.append('/').append(skippedEnd, 2, skippedEnd.length());
+                quote = 0;
+            }
+        } else {
+            skippedMatched = c == '<' ? 1 : 0;
+        }
+    }
+
+    private void entity(char c) {
+        if (c == ';') {
+            state = State.TEXT;
+            decodeEntity();
+        } else if (entity.length() < MAX_ENTITY_CHARS
+                && (Character.isLetterOrDigit(c) || (c == '#' && entity.isEmpty()))) {
+            entity.append(c);
+        } else {
+            // Not a character reference; keep it as written
+            state = State.TEXT;
+            append('&');
+            appendAll(entity);
+            process(c);
+        }
+    }
+
+    private void decodeEntity() {
+        String name = entity.toString();
+        switch (name) {
+            case "amp" -> append('&');
+            case "lt" -> append('<');
+            case "gt" -> append('>');
+            case "quot" -> append('"');
+            case "apos", "#39" -> append('\'');
+            case "nbsp" -> append(' ');
+            default -> {
+                int codePoint = -1;
+                if (name.startsWith("#x") || name.startsWith("#X")) {
+                    codePoint = parseCodePoint(name.substring(2), 16);
+                } else if (name.startsWith("#")) {
+                    codePoint = parseCodePoint(name.substring(1), 10);
+                }
+                if (codePoint >= 0) {
+                    for (char c : Character.toChars(codePoint)) {
+                        append(c);
+                    }
+                } else {
+                    append('&');
+                    appendAll(entity);
+                    append(';');
+                }
+            }
+        }
+    }
+
+    private static int parseCodePoint(String digits, int radix) {
+        try {
+            int codePoint = Integer.parseInt(digits, radix);
+            return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void appendAll(CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            append(chars.charAt(i));
+        }
+    }
+
+    private void append(char c) {
+        if (inTitle) {
+            if (title.length() < MAX_TITLE_CHARS) {
+                title.append(c);
+            }
+            return;
+        }
+        if (c == '\n' && !markup) {
+            pendingBreak = true;
+            return;
+        }
+        if (Character.isWhitespace(c) || c == '\u00a0') {
+            pendingSpace = true;
+            return;
+        }
+        char separator = text.isEmpty() ? 0 : pendingBreak ? '\n' : pendingSpace ? ' ' : 0;
+        if (full || text.length() + (separator != 0 ? 2 : 1) > maxChars) {
+            full = true;
+            return;
+        }
+        if (separator != 0) {
+            text.append(separator);
+        }
+        pendingBreak = false;
+        pendingSpace = false;
+        text.append(c);
+        full = text.length() >= maxChars;
+    }
+}
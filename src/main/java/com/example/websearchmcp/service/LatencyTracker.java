@@ -0,0 +1,46 @@
+package com.example.websearchmcp.service;
+
+import java.util.Arrays;
+
+/**
+ * Percentile over a sliding window of recent latencies. The percentile is recomputed every
+ * few samples rather than on every read, so callers on the request path only read a volatile.
+ */
+final class LatencyTracker {
+
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final double percentile;
+    private final long[] samples = new long[WINDOW];
+    private int next;
+    private int size;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % WINDOW;
+        if (size < WINDOW) {
+            size++;
+        }
+        if (size >= MIN_SAMPLES && (percentileNanos < 0 || ++sinceRecompute >= RECOMPUTE_EVERY)) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+            sinceRecompute = 0;
+        }
+    }
+
+    /**
+     * The tracked percentile in nanoseconds, or -1 until enough samples have been recorded.
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.model.FetchedPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fetches web pages and extracts their readable text for the {@code fetch_pages} and
+ * {@code search_and_read} tools.
+ *
+ * <p>Pages of one call are fetched concurrently, while the page client's connection pool caps
+ * connections per host across all calls. Bodies are streamed through {@link HtmlTextExtractor}
+ * and reading stops at the size or text limit. Extracted text is cached by URL; once an entry
+ * is older than {@code revalidateAfterSeconds} it is revalidated with the page's ETag or
+ * Last-Modified date, and a 304 keeps it without downloading the page again.
+ *
+ * <p>Unless private addresses are allowed, URLs (including redirect targets) that resolve to
+ * loopback, private or link-local addresses are refused, both before the request and, through
+ * {@link PublicAddressResolverGroup}, when the connection is made.
+ */
+@Service
+public class PageFetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PageFetcher.class);
+
+    private static final int MAX_REDIRECTS = 5;
+
+    private final WebClient webClient;
+    private final WebSearchProperties.Fetch settings;
+    private final Clock clock;
+    private final Cache<String, CachedPage> cache;
+
+    @Autowired
+    public PageFetcher(WebClient pageWebClient, WebSearchProperties properties) {
+        this(pageWebClient, properties, Clock.systemUTC());
+    }
+
+    PageFetcher(WebClient webClient, WebSearchProperties properties, Clock clock) {
+        this.webClient = webClient;
+        this.settings = properties.fetch();
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.maxCachedPages())
+                .build();
+    }
+
+    /**
+     * Fetches up to {@code maxPages} of the given URLs, returning one page per URL in the order
+     * given. Pages that fail are reported with their error rather than failing the call.
+     */
+    public Mono<List<FetchedPage>> fetchAll(List<String> urls) {
+        List<String> distinct = urls.stream()
+                .filter(Objects::nonNull)
+                .map(String::strip)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .limit(settings.maxPages())
+                .toList();
+        return Flux.fromIterable(distinct)
+                .flatMapSequential(this::fetch, settings.concurrency())
+                .collectList();
+    }
+
+    public Mono<FetchedPage> fetch(String url) {
+        CachedPage cached = cache.getIfPresent(url);
+        if (cached != null && clock.millis() - cached.validatedAtMillis() < revalidateAfterMillis()) {
+            return Mono.just(cached.page());
+        }
+        return Mono.defer(() -> fetch(url, URI.create(url), cached, 0))
+                .timeout(Duration.ofMillis(settings.timeoutMillis()))
+                .onErrorResume(e -> {
+                    log.debug("Failed to fetch {}: {}", url, e.toString());
+                    return Mono.just(FetchedPage.failed(url, describe(e)));
+                });
+    }
+
+    private Mono<FetchedPage> fetch(String url, URI uri, CachedPage cached, int redirects) {
+        return checkTarget(uri).then(webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (cached != null && cached.etag() != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                    if (cached != null && cached.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    HttpStatusCode status = response.statusCode();
+                    if (status.isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null) {
+                        return response.releaseBody().then(Mono.fromSupplier(() -> revalidated(url, cached)));
+                    }
+                    if (status.is3xxRedirection()) {
+                        URI location = response.headers().asHttpHeaders().getLocation();
+                        if (location == null || redirects >= MAX_REDIRECTS) {
+                            return response.releaseBody().then(Mono.just(FetchedPage.failed(url,
+                                    location == null ? "Redirect without a location" : "Too many redirects")));
+                        }
+                        return response.releaseBody().then(fetch(url, uri.resolve(location), cached, redirects + 1));
+                    }
+                    if (!status.is2xxSuccessful()) {
+                        return response.releaseBody().then(Mono.just(FetchedPage.failed(url, "HTTP " + status.value())));
+                    }
+                    return extract(url, response);
+                }));
+    }
+
+    private Mono<FetchedPage> extract(String url, ClientResponse response) {
+        MediaType type = response.headers().contentType().orElse(MediaType.TEXT_HTML);
+        boolean markup = type.isCompatibleWith(MediaType.TEXT_HTML) || type.isCompatibleWith(MediaType.APPLICATION_XHTML_XML);
+        if (!markup && !type.isCompatibleWith(MediaType.TEXT_PLAIN)) {
+            return response.releaseBody().then(Mono.just(FetchedPage.failed(url, "Unsupported content type " + type)));
+        }
+
+        Charset charset = type.getCharset() != null ? type.getCharset() : StandardCharsets.UTF_8;
+        HtmlTextExtractor extractor = new HtmlTextExtractor(charset, markup, settings.maxTextChars());
+        long maxBytes = settings.maxKb() * 1024L;
+        long[] read = {0};
+        HttpHeaders headers = response.headers().asHttpHeaders();
+
+        return response.bodyToFlux(DataBuffer.class)
+                .doOnNext(buffer -> {
+                    try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                        while (chunks.hasNext() && read[0] < maxBytes && !extractor.isFull()) {
+                            ByteBuffer chunk = chunks.next();
+                            if (chunk.remaining() > maxBytes - read[0]) {
+                                chunk.limit(chunk.position() + (int) (maxBytes - read[0]));
+                            }
+                            read[0] += chunk.remaining();
+                            extractor.feed(chunk);
+                        }
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                // Stops reading, and drops the connection, once nothing more would be kept
+                .takeUntil(buffer -> read[0] >= maxBytes || extractor.isFull())
+                .then(Mono.fromSupplier(() -> {
+                    boolean truncated = read[0] >= maxBytes || extractor.isFull();
+                    FetchedPage page = FetchedPage.ok(url, extractor.title(), extractor.text(), truncated);
+                    cache.put(url, new CachedPage(page, headers.getETag(),
+                            headers.getFirst(HttpHeaders.LAST_MODIFIED), clock.millis()));
+                    return page;
+                }));
+    }
+
+    private FetchedPage revalidated(String url, CachedPage cached) {
+        cache.put(url, new CachedPage(cached.page(), cached.etag(), cached.lastModified(), clock.millis()));
+        return cached.page();
+    }
+
+    /**
+     * Fails fast on targets that can't be fetched. The page client's
+     * {@link PublicAddressResolverGroup} enforces the private-address rule again at connect time.
+     */
+    private Mono<Void> checkTarget(URI uri) {
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            return Mono.error(new IllegalArgumentException("Only http and https URLs can be fetched"));
+        }
+        if (uri.getHost() == null) {
+            return Mono.error(new IllegalArgumentException("URL has no host"));
+        }
+        if (settings.allowPrivateAddresses()) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> InetAddress.getAllByName(uri.getHost()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(addresses -> {
+                    for (InetAddress address : addresses) {
+                        if (PublicAddressResolverGroup.isPrivate(address)) {
+                            return Mono.error(PublicAddressResolverGroup.refused(
+                                    InetSocketAddress.createUnresolved(uri.getHost(), 0)));
+                        }
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    private String describe(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return "Timed out after " + settings.timeoutMillis() + "ms";
+        }
+        if (error instanceof UnknownHostException) {
+            return "Unknown host " + error.getMessage();
+        }
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    private long revalidateAfterMillis() {
+        return settings.revalidateAfterSeconds() * 1000L;
+    }
+
+    private record CachedPage(FetchedPage page, String etag, String lastModified, long validatedAtMillis) {
+    }
+}
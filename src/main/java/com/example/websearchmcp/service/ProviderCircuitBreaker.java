@@ -0,0 +1,158 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Health of one upstream provider, tracked over a count-based sliding window of recent calls.
+ *
+ * <p>CLOSED lets every call through and opens once the failure rate or slow-call rate over the
+ * window crosses its threshold. OPEN rejects calls until the open duration has passed, then
+ * HALF_OPEN admits a few trial calls: if all succeed the circuit closes, any failure reopens it.
+ */
+class ProviderCircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final Resilience settings;
+    private final Clock clock;
+    private final long slowCallNanos;
+    private final Duration openDuration;
+
+    // Ring buffer of outcome flags for the most recent calls while CLOSED
+    private final byte[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    ProviderCircuitBreaker(Resilience settings, Clock clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.slowCallNanos = Duration.ofMillis(settings.slowCallMillis()).toNanos();
+        this.openDuration = Duration.ofSeconds(settings.openSeconds());
+        this.window = new byte[settings.slidingWindowSize()];
+    }
+
+    /**
+     * Whether a call would currently be admitted, without taking a trial permit.
+     */
+    synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> openDurationElapsed();
+            case HALF_OPEN -> trialPermits < settings.halfOpenCalls();
+        };
+    }
+
+    /**
+     * Admits a call, moving an expired OPEN circuit to HALF_OPEN. Every admitted call must be
+     * followed by exactly one of {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (!openDurationElapsed()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialPermits = 0;
+            trialSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialPermits >= settings.halfOpenCalls()) {
+                return false;
+            }
+            trialPermits++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess(long durationNanos) {
+        if (state == State.HALF_OPEN) {
+            if (++trialSuccesses >= settings.halfOpenCalls()) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(durationNanos >= slowCallNanos ? SLOW : 0);
+        }
+    }
+
+    synchronized void onFailure(long durationNanos) {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record((byte) (FAILED | (durationNanos >= slowCallNanos ? SLOW : 0)));
+        }
+    }
+
+    /**
+     * The call ended without saying anything about provider health (cancelled, or rejected
+     * as a bad request), so only its trial permit is returned.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialPermits > 0) {
+            trialPermits--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(byte outcome) {
+        if (recorded == window.length) {
+            byte evicted = window[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (recorded >= settings.minimumCalls()
+                && (failures * 100 >= settings.failureRateThreshold() * recorded
+                || slowCalls * 100 >= settings.slowCallRateThreshold() * recorded)) {
+            open();
+        }
+    }
+
+    private boolean openDurationElapsed() {
+        return !clock.instant().isBefore(openedAt.plus(openDuration));
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.instant();
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+
+/**
+ * Thrown without contacting the provider because its circuit breaker is open.
+ */
+public class ProviderUnavailableException extends RuntimeException {
+
+    private final Provider provider;
+
+    public ProviderUnavailableException(Provider provider) {
+        super("Search provider " + provider + " is unavailable (circuit open)");
+        this.provider = provider;
+    }
+
+    public Provider provider() {
+        return provider;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.websearchmcp.service;
+
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Resolver for the page client that refuses hosts resolving to loopback, private or
+ * link-local addresses. {@link PageFetcher} checks each target before the request, but the
+ * connection resolves the host again, and a host can answer the second lookup with a
+ * different address (DNS rebinding). Filtering here applies the check to the address that is
+ * actually connected to. Addresses given literally in the URL are checked as well.
+ */
+public class PublicAddressResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+    private final AddressResolverGroup<InetSocketAddress> delegate;
+
+    public PublicAddressResolverGroup(AddressResolverGroup<InetSocketAddress> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+        AddressResolver<InetSocketAddress> resolver = delegate.getResolver(executor);
+        return new AbstractAddressResolver<>(executor, InetSocketAddress.class) {
+
+            @Override
+            protected boolean doIsResolved(InetSocketAddress address) {
+                // Never, so literal addresses go through doResolve and get checked too
+                return false;
+            }
+
+            @Override
+            protected void doResolve(InetSocketAddress unresolved, Promise<InetSocketAddress> promise) {
+                resolver.resolve(unresolved).addListener((Future<InetSocketAddress> resolved) -> {
+                    if (!resolved.isSuccess()) {
+                        promise.tryFailure(resolved.cause());
+                    } else if (isPrivate(resolved.getNow().getAddress())) {
+                        promise.tryFailure(refused(unresolved));
+                    } else {
+                        promise.trySuccess(resolved.getNow());
+                    }
+                });
+            }
+
+            @Override
+            protected void doResolveAll(InetSocketAddress unresolved, Promise<List<InetSocketAddress>> promise) {
+                resolver.resolveAll(unresolved).addListener((Future<List<InetSocketAddress>> resolved) -> {
+                    if (!resolved.isSuccess()) {
+                        promise.tryFailure(resolved.cause());
+                    } else if (resolved.getNow().stream().anyMatch(address -> isPrivate(address.getAddress()))) {
+                        promise.tryFailure(refused(unresolved));
+                    } else {
+                        promise.trySuccess(resolved.getNow());
+                    }
+                });
+            }
+        };
+    }
+
+    static boolean isPrivate(InetAddress address) {
+        return address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+                || address.isAnyLocalAddress() || address.isMulticastAddress()
+                // IPv6 unique local addresses (fc00::/7)
+                || (address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc);
+    }
+
+    static IllegalArgumentException refused(InetSocketAddress target) {
+        return new IllegalArgumentException(
+                "Refusing to fetch " + target.getHostString() + ": it resolves to a private address");
+    }
+}
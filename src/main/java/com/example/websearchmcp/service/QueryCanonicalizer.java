@@ -0,0 +1,11 @@
+package com.example.websearchmcp.service;
+
+/**
+ * Reduces a search query to the canonical form used for cache keys and request
+ * coalescing. Queries with the same canonical form are treated as the same search.
+ */
+@FunctionalInterface
+public interface QueryCanonicalizer {
+
+    String canonicalize(String query);
+}
@@ -0,0 +1,161 @@
+package com.example.websearchmcp.service;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SharedStore} on a Redis server (or anything speaking its protocol), over a single
+ * multiplexed Lettuce connection. Every key is prefixed so several deployments can share a
+ * server.
+ *
+ * <p>Lettuce writes async commands without waiting for earlier replies, so a batch of
+ * counter updates is pipelined into one round trip.
+ *
+ * <p>The store is optional, so it never holds up startup: it connects in the background,
+ * retrying with backoff, and behaves as unreachable until then. Once connected, Lettuce
+ * reconnects on its own.
+ */
+public class RedisSharedStore implements SharedStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisSharedStore.class);
+
+    private static final RedisCodec<String, byte[]> CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+    private static final Duration FIRST_RETRY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY = Duration.ofSeconds(30);
+
+    private final RedisClient client;
+    private final String address;
+    private final String keyPrefix;
+    private final Duration timeout;
+    private final ScheduledExecutorService connector;
+    private volatile StatefulRedisConnection<String, byte[]> connection;
+    private volatile boolean closed;
+
+    public RedisSharedStore(String uri, String keyPrefix, Duration timeout) {
+        RedisURI redisUri = RedisURI.create(uri);
+        redisUri.setTimeout(timeout);
+        this.client = RedisClient.create(redisUri);
+        this.address = redisUri.getHost() + ":" + redisUri.getPort();
+        this.keyPrefix = keyPrefix;
+        this.timeout = timeout;
+        this.connector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shared-store-connect");
+            thread.setDaemon(true);
+            return thread;
+        });
+        connector.execute(() -> connect(FIRST_RETRY));
+    }
+
+    private void connect(Duration retryAfter) {
+        if (closed) {
+            return;
+        }
+        try {
+            connection = client.connect(CODEC);
+            log.info("Connected to shared store at {}", address);
+            connector.shutdown();
+            if (closed) {
+                connection.close();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Shared store at {} is unreachable, retrying in {}s: {}", address, retryAfter.toSeconds(),
+                    e.getMessage());
+            Duration doubled = retryAfter.multipliedBy(2);
+            Duration next = doubled.compareTo(MAX_RETRY) > 0 ? MAX_RETRY : doubled;
+            try {
+                connector.schedule(() -> connect(next), retryAfter.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException closing) {
+                // Closed while connecting
+            }
+        }
+    }
+
+    boolean isConnected() {
+        return connection != null;
+    }
+
+    @Override
+    public Map<String, Long> incrementAll(Map<String, Long> deltas, Duration ttl) {
+        StatefulRedisConnection<String, byte[]> current = connection;
+        if (current == null) {
+            throw new IllegalStateException("Shared store at " + address + " is not connected yet");
+        }
+        RedisAsyncCommands<String, byte[]> commands = current.async();
+        Map<String, RedisFuture<Long>> totals = new LinkedHashMap<>();
+        List<RedisFuture<?>> pending = new ArrayList<>(deltas.size() * 2);
+        deltas.forEach((key, delta) -> {
+            RedisFuture<Long> total = commands.incrby(keyPrefix + key, delta);
+            totals.put(key, total);
+            pending.add(total);
+            pending.add(commands.pexpire(keyPrefix + key, ttl.toMillis()));
+        });
+        if (!LettuceFutures.awaitAll(timeout.toMillis(), TimeUnit.MILLISECONDS,
+                pending.toArray(new RedisFuture<?>[0]))) {
+            throw new IllegalStateException("Shared store did not answer within " + timeout.toMillis() + "ms");
+        }
+
+        Map<String, Long> result = new HashMap<>();
+        totals.forEach((key, future) -> result.put(key, future.toCompletableFuture().join()));
+        return result;
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        StatefulRedisConnection<String, byte[]> current = connection;
+        if (current == null) {
+            return Mono.empty();
+        }
+        return current.reactive().get(keyPrefix + key)
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    log.debug("Shared store read failed for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        StatefulRedisConnection<String, byte[]> current = connection;
+        if (current == null) {
+            return;
+        }
+        current.async().set(keyPrefix + key, value, SetArgs.Builder.px(ttl.toMillis()))
+                .exceptionally(e -> {
+                    log.debug("Shared store write failed for {}: {}", key, e.getMessage());
+                    return null;
+                });
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        connector.shutdownNow();
+        StatefulRedisConnection<String, byte[]> current = connection;
+        if (current != null) {
+            current.close();
+        }
+        client.shutdown();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.websearchmcp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution: concurrent callers asking for the same key share one
+ * in-flight load instead of each going upstream.
+ *
+ * <p>The shared load runs to completion even if the caller that started it cancels, so
+ * the callers that joined it still get the result.
+ */
+public class RequestCoalescer<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaderCalls;
+    private final Counter coalescedCalls;
+
+    public RequestCoalescer(String name, MeterRegistry meterRegistry) {
+        this.leaderCalls = Counter.builder("websearch.coalescer.calls")
+                .description("Calls that executed the upstream load themselves")
+                .tag("coalescer", name)
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.coalescedCalls = Counter.builder("websearch.coalescer.calls")
+                .description("Calls that joined an already in-flight load")
+                .tag("coalescer", name)
+                .tag("role", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("websearch.coalescer.in.flight", inFlight, ConcurrentMap::size)
+                .description("Distinct loads currently in flight")
+                .tag("coalescer", name)
+                .register(meterRegistry);
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+            if (existing != null) {
+                coalescedCalls.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            leaderCalls.increment();
+            future.whenComplete((value, error) -> inFlight.remove(key, future));
+            try {
+                loader.get().subscribe(
+                        future::complete,
+                        future::completeExceptionally,
+                        () -> future.complete(null));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+            return Mono.fromFuture(future, true);
+        });
+    }
+
+    public long coalescedCount() {
+        return (long) coalescedCalls.count();
+    }
+
+    public long leaderCount() {
+        return (long) leaderCalls.count();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
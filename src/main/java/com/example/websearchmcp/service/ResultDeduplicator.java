@@ -0,0 +1,153 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Deduplication;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Drops repeated results, keeping the best-ranked copy. Results are the same if their URLs
+ * have the same {@link UrlCanonicalizer canonical form}, or, when near-duplicate title
+ * detection is on, if the SimHash fingerprints of their titles differ in at most
+ * {@code maxTitleDistance} bits.
+ *
+ * <p>Title fingerprints are built from words and word pairs, so lightly edited titles of
+ * syndicated copies still match. Titles shorter than {@value #MIN_TITLE_WORDS} words are
+ * not compared, because short generic titles ("Home", "Login") collide across unrelated sites.
+ */
+final class ResultDeduplicator {
+
+    private static final int MIN_TITLE_WORDS = 4;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final boolean enabled;
+    private final boolean nearDuplicateTitles;
+    private final int maxTitleDistance;
+    private final UrlCanonicalizer canonicalizer;
+    private final Counter removed;
+
+    ResultDeduplicator(Deduplication settings, MeterRegistry meterRegistry) {
+        this.enabled = settings.enabled();
+        this.nearDuplicateTitles = settings.nearDuplicateTitles();
+        this.maxTitleDistance = settings.maxTitleDistance();
+        this.canonicalizer = new UrlCanonicalizer(settings.trackingParameters());
+        this.removed = Counter.builder("websearch.results.duplicates")
+                .description("Provider results dropped as repeats of a better-ranked result")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The first {@code limit} distinct items, in rank order.
+     */
+    List<SearchResultItem> deduplicate(List<SearchResultItem> items, int limit) {
+        List<SearchResultItem> kept = new ArrayList<>(Math.min(items.size(), limit));
+        if (!enabled) {
+            for (int i = 0; i < items.size() && kept.size() < limit; i++) {
+                kept.add(items.get(i));
+            }
+            return kept;
+        }
+
+        Set<String> seenUrls = new HashSet<>();
+        long[] fingerprints = nearDuplicateTitles ? new long[Math.min(items.size(), limit)] : null;
+        int fingerprinted = 0;
+        int duplicates = 0;
+        for (SearchResultItem item : items) {
+            if (kept.size() == limit) {
+                break;
+            }
+            if (!item.url().isEmpty() && !seenUrls.add(canonicalizer.canonicalize(item.url()))) {
+                duplicates++;
+                continue;
+            }
+            if (fingerprints != null) {
+                long fingerprint = simHash(item.title());
+                if (fingerprint != 0 && isNearDuplicate(fingerprint, fingerprints, fingerprinted)) {
+                    duplicates++;
+                    continue;
+                }
+                if (fingerprint != 0) {
+                    fingerprints[fingerprinted++] = fingerprint;
+                }
+            }
+            kept.add(item);
+        }
+        if (duplicates > 0) {
+            removed.increment(duplicates);
+        }
+        return kept;
+    }
+
+    private boolean isNearDuplicate(long fingerprint, long[] fingerprints, int count) {
+        for (int i = 0; i < count; i++) {
+            if (Long.bitCount(fingerprint ^ fingerprints[i]) <= maxTitleDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 64-bit SimHash over the title's words and word pairs, or 0 if the title is too short to compare.
+     */
+    static long simHash(String title) {
+        if (title == null) {
+            return 0;
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : title.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        if (words.size() < MIN_TITLE_WORDS) {
+            return 0;
+        }
+
+        int[] weights = new int[64];
+        for (int i = 0; i < words.size(); i++) {
+            long word = fnv(FNV_OFFSET, words.get(i));
+            addFeature(weights, mix(word));
+            if (i + 1 < words.size()) {
+                addFeature(weights, mix(fnv(word ^ ' ', words.get(i + 1))));
+            }
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        // 0 is reserved for "not compared"
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static void addFeature(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+        }
+    }
+
+    private static long fnv(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // Finalizer from MurmurHash3, so FNV's weak high bits still spread over all 64 positions
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
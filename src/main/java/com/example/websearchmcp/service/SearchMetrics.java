@@ -0,0 +1,84 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.service.SearchResultCache.Freshness;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upstream call latency by provider and outcome, and cache lookups by tool and result.
+ *
+ * <p>Every meter is registered before it is first recorded to and looked up by enum or by
+ * the tool name from the subscriber context, so recording allocates nothing.
+ */
+final class SearchMetrics {
+
+    /** Bucket boundaries for upstream latency, around the providers' typical 300ms to 2s. */
+    static final Duration[] UPSTREAM_SLOS = {
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(5)};
+
+    enum Outcome {
+        SUCCESS, ERROR, TIMEOUT, CANCELLED;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final String[] CACHE_RESULTS = {"hit", "stale", "expired", "miss"};
+    private static final int MISS = CACHE_RESULTS.length - 1;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Provider, Timer[]> upstream = new EnumMap<>(Provider.class);
+    private final Map<String, Counter[]> cacheLookups = new ConcurrentHashMap<>();
+
+    SearchMetrics(MeterRegistry meterRegistry, Iterable<Provider> providers) {
+        this.meterRegistry = meterRegistry;
+        for (Provider provider : providers) {
+            Timer[] timers = new Timer[Outcome.values().length];
+            for (Outcome outcome : Outcome.values()) {
+                timers[outcome.ordinal()] = Timer.builder("websearch.upstream.requests")
+                        .description("Provider calls, from sending the request to parsed results")
+                        .tag("provider", provider.name())
+                        .tag("outcome", outcome.tag)
+                        .serviceLevelObjectives(UPSTREAM_SLOS)
+                        .register(meterRegistry);
+            }
+            upstream.put(provider, timers);
+        }
+    }
+
+    void recordUpstream(Provider provider, Outcome outcome, long nanos) {
+        upstream.get(provider)[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param freshness the hit's freshness, or null for a miss
+     */
+    void recordCacheLookup(String tool, Freshness freshness) {
+        Counter[] counters = cacheLookups.get(tool);
+        if (counters == null) {
+            counters = cacheLookups.computeIfAbsent(tool, this::cacheCounters);
+        }
+        counters[freshness == null ? MISS : freshness.ordinal()].increment();
+    }
+
+    private Counter[] cacheCounters(String tool) {
+        Counter[] counters = new Counter[CACHE_RESULTS.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = Counter.builder("websearch.cache.requests")
+                    .description("Search result cache lookups by the tool that made them")
+                    .tag("tool", tool)
+                    .tag("result", CACHE_RESULTS[i])
+                    .register(meterRegistry);
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.websearchmcp.service;
+
+/**
+ * Order in which searches waiting on an upstream quota are let through.
+ */
+public enum SearchPriority {
+
+    /** Small, latency-sensitive lookups such as {@code quick_search}. */
+    INTERACTIVE,
+
+    /** Regular tool calls. */
+    NORMAL,
+
+    /** Cache refreshes that nobody is waiting on. */
+    BACKGROUND
+}
@@ -0,0 +1,238 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.SearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Count-aware view over the {@code searchResults} cache. Entries are keyed by provider
+ * and query only, so a cached result fetched for N items also answers any request for
+ * fewer than N by slicing.
+ *
+ * <p>Each entry also tracks when it was fetched so callers can tell fresh hits from ones
+ * past the soft TTL (serve, then refresh in the background) or past the hard TTL (only
+ * usable as a fallback while the provider is failing).
+ *
+ * <p>When a {@link DiskResultStore} is configured, reads fall through memory to disk
+ * before the caller goes to the provider, and every put is also appended to disk in the
+ * background.
+ *
+ * <p>When a {@link SharedStore} is configured, it is the last tier before the provider and
+ * every put is written to it in the background, so instances share what any of them fetched.
+ * The in-memory cache then acts as a near-cache: shared entries are copied into it on first
+ * read and served locally from then on.
+ */
+public class SearchResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private static final String CACHE_NAME = "searchResults";
+    private static final String SHARED_KEY_PREFIX = "cache:";
+
+    private final Cache cache;
+    private final long softTtlMillis;
+    private final long hardTtlMillis;
+    private final long graceMillis;
+    private final Clock clock;
+    private final DiskResultStore disk;
+    private final SharedStore shared;
+
+    public SearchResultCache(CacheManager cacheManager, Duration softTtl, Duration hardTtl, Duration grace,
+                             Clock clock, DiskResultStore disk) {
+        this(cacheManager, softTtl, hardTtl, grace, clock, disk, null);
+    }
+
+    public SearchResultCache(CacheManager cacheManager, Duration softTtl, Duration hardTtl, Duration grace,
+                             Clock clock, DiskResultStore disk, SharedStore shared) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        if (this.cache == null) {
+            throw new IllegalStateException("Cache '" + CACHE_NAME + "' is not configured");
+        }
+        this.hardTtlMillis = hardTtl.toMillis();
+        this.softTtlMillis = softTtl.isZero() ? hardTtlMillis : Math.min(softTtl.toMillis(), hardTtlMillis);
+        this.graceMillis = grace.toMillis();
+        this.clock = clock;
+        this.disk = disk;
+        this.shared = shared;
+    }
+
+    /**
+     * Completes empty on a miss. Memory hits complete at once on the caller's thread; lookups
+     * that fall through to the disk or shared tier complete on another thread, so callers on an
+     * event loop never block on them.
+     */
+    public Mono<Hit> get(Provider provider, String query, int count) {
+        String key = key(provider, query);
+        Entry entry = cache.get(key, Entry.class);
+        if (entry != null) {
+            if (disk != null) {
+                disk.touch(key);
+            }
+            return Mono.justOrEmpty(hit(entry, count));
+        }
+        if (disk == null && shared == null) {
+            return Mono.empty();
+        }
+        return readTiers(key)
+                .doOnNext(found -> cache.putIfAbsent(key, found))
+                .flatMap(found -> Mono.justOrEmpty(hit(found, count)));
+    }
+
+    private Optional<Hit> hit(Entry entry, int count) {
+        if (!entry.covers(count)) {
+            return Optional.empty();
+        }
+
+        long age = clock.millis() - entry.fetchedAtMillis();
+        Freshness freshness;
+        if (age < softTtlMillis) {
+            freshness = Freshness.FRESH;
+        } else if (age < hardTtlMillis) {
+            freshness = Freshness.STALE;
+        } else if (age < hardTtlMillis + graceMillis) {
+            freshness = Freshness.EXPIRED;
+        } else {
+            return Optional.empty();
+        }
+        return Optional.of(new Hit(entry.result().decode(count), freshness, entry.requestedCount(),
+                entry.refreshFailures()));
+    }
+
+    /**
+     * @param exhausted the provider returned fewer items than {@code count}, before deduplication
+     */
+    public void put(Provider provider, String query, int count, SearchResult result, boolean exhausted) {
+        String key = key(provider, query);
+        Entry existing = cache.get(key, Entry.class);
+        // Don't let a smaller fetch replace a larger one that is still servable. Past the hard
+        // TTL the larger one is only a stale-if-error fallback, and keeping it would send every
+        // smaller request upstream until the grace period ends.
+        if (existing != null && existing.requestedCount() > count
+                && clock.millis() - existing.fetchedAtMillis() < hardTtlMillis) {
+            return;
+        }
+        Entry entry = new Entry(CompactSearchResult.encode(result), count, exhausted, clock.millis(), 0);
+        cache.put(key, entry);
+        if (disk != null) {
+            disk.writeBehind(key, entry, entry.fetchedAtMillis() + hardTtlMillis + graceMillis);
+        }
+        if (shared != null) {
+            writeShared(key, entry);
+        }
+    }
+
+    /**
+     * Loads up to {@code maxEntries} of the most frequently read disk entries into memory.
+     */
+    public int warmUp(int maxEntries) {
+        if (disk == null) {
+            return 0;
+        }
+        AtomicInteger loaded = new AtomicInteger();
+        disk.forEachHottest(maxEntries, (key, entry) -> {
+            cache.putIfAbsent(key, entry);
+            loaded.incrementAndGet();
+        });
+        return loaded.get();
+    }
+
+    private Mono<Entry> readTiers(String key) {
+        Mono<Entry> fromDisk = disk == null ? Mono.empty()
+                : Mono.fromCallable(() -> disk.read(key)).subscribeOn(Schedulers.boundedElastic());
+        if (shared == null) {
+            return fromDisk;
+        }
+        return fromDisk.switchIfEmpty(Mono.defer(() -> readShared(key)));
+    }
+
+    private Mono<Entry> readShared(String key) {
+        return shared.get(SHARED_KEY_PREFIX + key).mapNotNull(record -> {
+            try {
+                return DiskResultStore.decode(record).entry();
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable shared cache entry for {}: {}", key, e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    private void writeShared(String key, Entry entry) {
+        long retentionMillis = hardTtlMillis + graceMillis;
+        try {
+            shared.set(SHARED_KEY_PREFIX + key,
+                    DiskResultStore.encode(key, entry, entry.fetchedAtMillis() + retentionMillis, 0),
+                    Duration.ofMillis(retentionMillis));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records a failed background reload. The entry keeps its original fetch time, so it
+     * stays servable only until the hard TTL plus the stale-if-error grace period.
+     */
+    public void recordRefreshFailure(Provider provider, String query) {
+        String key = key(provider, query);
+        Entry existing = cache.get(key, Entry.class);
+        if (existing != null) {
+            cache.put(key, new Entry(existing.result(), existing.requestedCount(), existing.exhausted(),
+                    existing.fetchedAtMillis(), existing.refreshFailures() + 1));
+        }
+    }
+
+    private static String key(Provider provider, String query) {
+        return provider + ":" + query;
+    }
+
+    /**
+     * Caffeine weigher for the {@code searchResults} cache: the approximate heap size of an
+     * entry in bytes.
+     */
+    public static int weigh(Object key, Object value) {
+        int keyBytes = key instanceof String k ? k.length() + 40 : 16;
+        if (value instanceof Entry entry) {
+            return keyBytes + entry.result().estimatedBytes();
+        }
+        return keyBytes + 64;
+    }
+
+    public enum Freshness {
+        /** Younger than the soft TTL. */
+        FRESH,
+        /** Past the soft TTL but within the hard TTL: serve and reload in the background. */
+        STALE,
+        /** Past the hard TTL but within the grace period: only serve if the provider fails. */
+        EXPIRED
+    }
+
+    /**
+     * A cache hit. {@code requestedCount} is the count the entry was fetched for, which is
+     * what a background reload should ask the provider for.
+     */
+    public record Hit(SearchResult result, Freshness freshness, int requestedCount, int refreshFailures) {}
+
+    /**
+     * A cached provider response, in compact form, together with the result count it was
+     * fetched for. {@code exhausted} is set when the provider had no more results; the cached
+     * list can be shorter than {@code requestedCount} without it, once duplicates are dropped.
+     */
+    record Entry(CompactSearchResult result, int requestedCount, boolean exhausted, long fetchedAtMillis,
+                 int refreshFailures) {
+
+        boolean covers(int count) {
+            return requestedCount >= count || exhausted;
+        }
+    }
+}
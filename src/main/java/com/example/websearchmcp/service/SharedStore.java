@@ -0,0 +1,37 @@
+package com.example.websearchmcp.service;
+
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Key-value store shared by every instance of the server, used for cluster-wide rate limit
+ * counters and as a shared tier behind the in-memory search result cache.
+ *
+ * <p>Implementations are expected to be remote, so callers batch counter updates and keep a
+ * local near-cache rather than calling the store on every request.
+ */
+public interface SharedStore extends Closeable {
+
+    /**
+     * Adds each delta to its counter, creating missing counters with the given time to live,
+     * and returns the resulting totals. All updates go out in a single round trip.
+     */
+    Map<String, Long> incrementAll(Map<String, Long> deltas, Duration ttl);
+
+    /**
+     * Reads without blocking the caller. Completes empty if the key is absent or the store
+     * could not be reached in time; never fails.
+     */
+    Mono<byte[]> get(String key);
+
+    /**
+     * Stores the value without waiting for the write to be acknowledged.
+     */
+    void set(String key, byte[] value, Duration ttl);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,20 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+
+/**
+ * Thrown without contacting the provider because its outbound quota can't admit the call in time.
+ */
+public class UpstreamQuotaExceededException extends RuntimeException {
+
+    private final Provider provider;
+
+    public UpstreamQuotaExceededException(Provider provider, String reason) {
+        super("Search provider " + provider + " quota exceeded: " + reason);
+        this.provider = provider;
+    }
+
+    public Provider provider() {
+        return provider;
+    }
+}
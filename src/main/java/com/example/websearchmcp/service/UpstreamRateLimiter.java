@@ -0,0 +1,374 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.config.WebSearchProperties.ProviderQuota;
+import com.example.websearchmcp.config.WebSearchProperties.UpstreamLimits;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound limiter in front of the provider clients: a token bucket per provider, plus an
+ * optional monthly cap, so bursts from many MCP clients don't turn into provider 429s.
+ *
+ * <p>Calls that can't get a token right away wait in a bounded queue ordered by
+ * {@link SearchPriority}. A call whose estimated wait already exceeds the maximum wait is shed
+ * on arrival rather than queued, and a queued call that higher-priority traffic pushed past its
+ * deadline is shed when the queue is next drained. Waiting holds no thread.
+ *
+ * <p>Monthly usage is counted in memory. With a {@link SharedStore}, each sync interval the
+ * calls counted since the last sync are added to a per-provider, per-month counter in the
+ * store and the cluster-wide total replaces the local count, so the cap holds across
+ * instances and restarts, overshooting by at most one sync interval's worth of calls per
+ * instance. Without one, the cap is per instance and starts over on restart.
+ */
+public class UpstreamRateLimiter implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamRateLimiter.class);
+
+    // Outlives any calendar month, so a counter is never dropped while its month is current
+    private static final Duration MONTHLY_COUNTER_TTL = Duration.ofDays(32);
+
+    private final Map<Provider, Bucket> buckets = new EnumMap<>(Provider.class);
+    private final SharedStore store;
+    private ScheduledExecutorService syncScheduler;
+
+    public UpstreamRateLimiter(UpstreamLimits limits, SharedStore store, MeterRegistry meterRegistry) {
+        this(limits, store, meterRegistry, Schedulers.parallel(), Clock.systemUTC());
+    }
+
+    UpstreamRateLimiter(UpstreamLimits limits, SharedStore store, MeterRegistry meterRegistry, Scheduler scheduler,
+                        Clock clock) {
+        this.store = store;
+        limits.providers().forEach((provider, quota) -> buckets.put(provider,
+                new Bucket(provider, quota, limits, meterRegistry, scheduler, clock)));
+    }
+
+    /**
+     * Syncs monthly usage with the shared store every interval, starting with a read of what
+     * is already recorded for the month. Does nothing without a store.
+     */
+    public void startMonthlySync(Duration interval) {
+        if (store == null) {
+            return;
+        }
+        syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-quota-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncScheduler.scheduleWithFixedDelay(this::syncMonthly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void syncMonthly() {
+        Map<String, Long> deltas = new HashMap<>();
+        Map<String, Bucket> batch = new HashMap<>();
+        buckets.values().stream()
+                .filter(bucket -> bucket.monthlyQuota > 0)
+                .forEach(bucket -> batch.put(bucket.takeUnsynced(deltas), bucket));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> totals;
+        try {
+            totals = store.incrementAll(deltas, MONTHLY_COUNTER_TTL);
+        } catch (RuntimeException e) {
+            log.warn("Monthly quota sync failed, counting locally until the shared store is back: {}", e.getMessage());
+            batch.forEach((key, bucket) -> bucket.restoreUnsynced(key, deltas.get(key)));
+            return;
+        }
+        batch.forEach((key, bucket) -> {
+            Long total = totals.get(key);
+            if (total != null) {
+                bucket.applyTotal(key, total);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (syncScheduler != null) {
+            syncScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Completes once a call to the provider may be sent, or fails with
+     * {@link UpstreamQuotaExceededException} if it was shed. Cancelling leaves the queue.
+     */
+    public Mono<Void> acquire(Provider provider, SearchPriority priority) {
+        Bucket bucket = buckets.get(provider);
+        if (bucket == null) {
+            return Mono.empty();
+        }
+        return Mono.create(sink -> bucket.admit(priority, sink));
+    }
+
+    /**
+     * Gives back the token an {@link #acquire} granted for a call that was never sent, e.g.
+     * because the provider's circuit opened while the call was queued, so it doesn't count
+     * against the rate or the monthly quota.
+     */
+    public void refund(Provider provider) {
+        Bucket bucket = buckets.get(provider);
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    private record Waiter(SearchPriority priority, long sequence, long deadlineNanos, MonoSink<Void> sink) {
+    }
+
+    private static final class Bucket {
+
+        private static final Comparator<Waiter> ORDER = Comparator
+                .comparing(Waiter::priority)
+                .thenComparingLong(Waiter::sequence);
+
+        private final Provider provider;
+        private final double nanosPerToken;
+        private final int burst;
+        private final long monthlyQuota;
+        private final int queueCapacity;
+        private final long maxWaitNanos;
+        private final Scheduler scheduler;
+        private final Clock clock;
+        private final Counter immediate;
+        private final Counter queued;
+        private final Counter shed;
+
+        // Guarded by this
+        private final PriorityQueue<Waiter> queue = new PriorityQueue<>(ORDER);
+        private double tokens;
+        private long refilledAt;
+        private long sequence;
+        private boolean drainScheduled;
+        private YearMonth month;
+        // Written under this; volatile so the gauge can read it without the lock
+        private volatile long monthlyUsed;
+        // Calls counted since the last shared store sync
+        private long unsynced;
+
+        Bucket(Provider provider, ProviderQuota quota, UpstreamLimits limits, MeterRegistry meterRegistry,
+               Scheduler scheduler, Clock clock) {
+            this.provider = provider;
+            this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / quota.requestsPerSecond();
+            this.burst = quota.burst();
+            this.monthlyQuota = quota.monthlyQuota();
+            this.queueCapacity = limits.queueCapacity();
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(limits.maxWaitMillis());
+            this.scheduler = scheduler;
+            this.clock = clock;
+            this.tokens = burst;
+            this.refilledAt = now();
+            this.month = YearMonth.now(clock);
+
+            this.immediate = outcomeCounter(meterRegistry, "immediate");
+            this.queued = outcomeCounter(meterRegistry, "queued");
+            this.shed = outcomeCounter(meterRegistry, "shed");
+            Gauge.builder("websearch.upstream.limiter.queue", queue, PriorityQueue::size)
+                    .description("Calls waiting for an outbound token")
+                    .tag("provider", provider.name())
+                    .register(meterRegistry);
+            Gauge.builder("websearch.upstream.monthly.used", this, bucket -> bucket.monthlyUsed)
+                    .description("Calls sent to the provider this calendar month (UTC)")
+                    .tag("provider", provider.name())
+                    .register(meterRegistry);
+        }
+
+        private Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+            return Counter.builder("websearch.upstream.limiter.calls")
+                    .description("Outbound calls by how the limiter admitted them")
+                    .tag("provider", provider.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        void admit(SearchPriority priority, MonoSink<Void> sink) {
+            String rejection = null;
+            boolean granted = false;
+
+            synchronized (this) {
+                long now = now();
+                refill(now);
+                if (monthlyExhausted()) {
+                    rejection = "monthly quota of " + monthlyQuota + " used";
+                } else if (queue.isEmpty() && tokens >= 1) {
+                    take();
+                    granted = true;
+                } else if (queue.size() >= queueCapacity) {
+                    rejection = "wait queue full";
+                } else {
+                    long ahead = queue.stream().filter(w -> w.priority().compareTo(priority) <= 0).count();
+                    long estimatedWait = (long) ((ahead + 1 - tokens) * nanosPerToken);
+                    if (estimatedWait > maxWaitNanos) {
+                        rejection = "estimated wait " + TimeUnit.NANOSECONDS.toMillis(estimatedWait) + "ms";
+                    } else {
+                        Waiter waiter = new Waiter(priority, sequence++, now + maxWaitNanos, sink);
+                        queue.add(waiter);
+                        sink.onCancel(() -> cancel(waiter));
+                        scheduleDrain(now);
+                    }
+                }
+            }
+
+            if (granted) {
+                immediate.increment();
+                sink.success();
+            } else if (rejection != null) {
+                shed(sink, rejection);
+            } else {
+                queued.increment();
+            }
+        }
+
+        private void drain() {
+            List<Waiter> granted = new ArrayList<>();
+            List<Waiter> expired = new ArrayList<>();
+            String expiredReason;
+
+            synchronized (this) {
+                drainScheduled = false;
+                long now = now();
+                refill(now);
+                queue.removeIf(waiter -> {
+                    if (waiter.deadlineNanos() < now) {
+                        expired.add(waiter);
+                        return true;
+                    }
+                    return false;
+                });
+                expiredReason = "waited longer than " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms";
+                while (tokens >= 1 && !queue.isEmpty() && !monthlyExhausted()) {
+                    take();
+                    granted.add(queue.poll());
+                }
+                if (monthlyExhausted()) {
+                    expired.addAll(queue);
+                    queue.clear();
+                    expiredReason = "monthly quota of " + monthlyQuota + " used";
+                }
+                if (!queue.isEmpty()) {
+                    scheduleDrain(now);
+                }
+            }
+
+            granted.forEach(waiter -> waiter.sink().success());
+            for (Waiter waiter : expired) {
+                shed(waiter.sink(), expiredReason);
+            }
+        }
+
+        synchronized void refund() {
+            long now = now();
+            refill(now);
+            tokens = Math.min(burst, tokens + 1);
+            if (monthlyUsed > 0) {
+                monthlyUsed--;
+                unsynced--;
+            }
+            if (!queue.isEmpty()) {
+                scheduleDrain(now);
+            }
+        }
+
+        /**
+         * Moves the calls counted since the last sync into the batch, returning their counter key.
+         */
+        synchronized String takeUnsynced(Map<String, Long> deltas) {
+            monthlyExhausted();
+            String key = counterKey();
+            deltas.put(key, unsynced);
+            unsynced = 0;
+            return key;
+        }
+
+        synchronized void restoreUnsynced(String key, long delta) {
+            if (key.equals(counterKey())) {
+                unsynced += delta;
+            }
+        }
+
+        synchronized void applyTotal(String key, long total) {
+            // A total for a month that has since ended no longer matters
+            if (!key.equals(counterKey())) {
+                return;
+            }
+            monthlyUsed = total + unsynced;
+            if (!queue.isEmpty()) {
+                scheduleDrain(now());
+            }
+        }
+
+        private String counterKey() {
+            return "upstream:monthly:" + provider.name() + ":" + month;
+        }
+
+        private synchronized void cancel(Waiter waiter) {
+            queue.remove(waiter);
+        }
+
+        private void shed(MonoSink<Void> sink, String reason) {
+            shed.increment();
+            log.debug("Shedding {} call: {}", provider, reason);
+            sink.error(new UpstreamQuotaExceededException(provider, reason));
+        }
+
+        private void scheduleDrain(long now) {
+            if (drainScheduled) {
+                return;
+            }
+            long untilToken = (long) Math.max(0, (1 - tokens) * nanosPerToken);
+            long untilDeadline = queue.stream().mapToLong(Waiter::deadlineNanos).min().orElse(Long.MAX_VALUE) - now;
+            drainScheduled = true;
+            scheduler.schedule(this::drain, Math.max(0, Math.min(untilToken, untilDeadline)), TimeUnit.NANOSECONDS);
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) / nanosPerToken);
+            refilledAt = now;
+        }
+
+        private void take() {
+            tokens -= 1;
+            monthlyUsed++;
+            unsynced++;
+        }
+
+        private boolean monthlyExhausted() {
+            YearMonth current = YearMonth.now(clock);
+            if (!current.equals(month)) {
+                month = current;
+                monthlyUsed = 0;
+                unsynced = 0;
+            }
+            return monthlyQuota > 0 && monthlyUsed >= monthlyQuota;
+        }
+
+        private static long now() {
+            return System.nanoTime();
+        }
+    }
+}
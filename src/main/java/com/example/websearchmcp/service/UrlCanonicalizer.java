@@ -0,0 +1,142 @@
+package com.example.websearchmcp.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reduces a result URL to a comparison key under which variants of the same page are equal:
+ * the scheme, {@code www.}/{@code m.}/{@code amp.} host prefixes, default ports, fragments,
+ * trailing slashes and {@code /amp} suffixes are dropped, AMP cache URLs are unwrapped to the
+ * page they serve, tracking parameters are removed and the remaining parameters sorted.
+ *
+ * <p>The key is only for comparing; it is not a fetchable URL. Paths keep their case since
+ * servers may treat them case-sensitively.
+ */
+final class UrlCanonicalizer {
+
+    private static final List<String> HOST_PREFIXES = List.of("www.", "m.", "amp.");
+    private static final String AMP_CACHE_SUFFIX = ".cdn.ampproject.org";
+
+    private final Set<String> trackingParameters;
+    private final List<String> trackingPrefixes;
+
+    UrlCanonicalizer(Collection<String> trackingParameters) {
+        this.trackingParameters = trackingParameters.stream()
+                .filter(name -> !name.endsWith("*"))
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.trackingPrefixes = trackingParameters.stream()
+                .filter(name -> name.endsWith("*"))
+                .map(name -> name.substring(0, name.length() - 1).toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    String canonicalize(String url) {
+        String rest = url.strip();
+        int schemeEnd = rest.indexOf("://");
+        if (schemeEnd >= 0) {
+            rest = rest.substring(schemeEnd + 3);
+        }
+        int fragment = rest.indexOf('#');
+        if (fragment >= 0) {
+            rest = rest.substring(0, fragment);
+        }
+        int queryStart = rest.indexOf('?');
+        String query = queryStart >= 0 ? rest.substring(queryStart + 1) : "";
+        if (queryStart >= 0) {
+            rest = rest.substring(0, queryStart);
+        }
+        int pathStart = rest.indexOf('/');
+        String host = host(pathStart >= 0 ? rest.substring(0, pathStart) : rest);
+        String path = pathStart >= 0 ? rest.substring(pathStart) : "";
+
+        String served = ampTarget(host, path);
+        if (served != null) {
+            return canonicalize(query.isEmpty() ? served : served + "?" + query);
+        }
+
+        return host + path(path) + query(query);
+    }
+
+    private static String host(String authority) {
+        int userInfo = authority.lastIndexOf('@');
+        String host = (userInfo >= 0 ? authority.substring(userInfo + 1) : authority).toLowerCase(Locale.ROOT);
+        if (host.endsWith(":80")) {
+            host = host.substring(0, host.length() - 3);
+        } else if (host.endsWith(":443")) {
+            host = host.substring(0, host.length() - 4);
+        }
+        if (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        for (String prefix : HOST_PREFIXES) {
+            if (host.startsWith(prefix) && host.indexOf('.', prefix.length()) > 0) {
+                return host.substring(prefix.length());
+            }
+        }
+        return host;
+    }
+
+    /**
+     * The page an AMP cache or viewer URL serves, e.g. {@code example-com.cdn.ampproject.org/c/s/example.com/a}
+     * or {@code google.com/amp/s/example.com/a}, or null if it isn't one.
+     */
+    private static String ampTarget(String host, String path) {
+        String served = null;
+        if (host.endsWith(AMP_CACHE_SUFFIX) && path.startsWith("/c/")) {
+            served = path.substring("/c/".length());
+        } else if (host.equals("google.com") && path.startsWith("/amp/")) {
+            served = path.substring("/amp/".length());
+        }
+        if (served == null) {
+            return null;
+        }
+        return served.startsWith("s/") ? served.substring(2) : served;
+    }
+
+    private static String path(String path) {
+        if (path.endsWith("/amp") || path.endsWith("/amp/")) {
+            path = path.substring(0, path.lastIndexOf("/amp"));
+        }
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(0, end);
+    }
+
+    private String query(String query) {
+        if (query.isEmpty()) {
+            return "";
+        }
+        List<String> kept = new ArrayList<>();
+        for (String parameter : query.split("&")) {
+            if (!parameter.isEmpty() && !isTracking(parameter)) {
+                kept.add(parameter);
+            }
+        }
+        if (kept.isEmpty()) {
+            return "";
+        }
+        kept.sort(null);
+        return "?" + String.join("&", kept);
+    }
+
+    private boolean isTracking(String parameter) {
+        int equals = parameter.indexOf('=');
+        String name = (equals >= 0 ? parameter.substring(0, equals) : parameter).toLowerCase(Locale.ROOT);
+        if (trackingParameters.contains(name)) {
+            return true;
+        }
+        for (String prefix : trackingPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,174 +1,572 @@
 package com.example.websearchmcp.service;
 
 import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.config.WebSearchProperties.Batch;
+import com.example.websearchmcp.config.WebSearchProperties.Hedging;
+import com.example.websearchmcp.config.WebSearchProperties.Resilience;
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.BatchSearchResult;
+import com.example.websearchmcp.model.BatchSearchResult.QueryResult;
 import com.example.websearchmcp.model.SearchResult;
 import com.example.websearchmcp.model.SearchResult.SearchResultItem;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.websearchmcp.provider.SearchProvider;
+import com.example.websearchmcp.service.SearchMetrics.Outcome;
+import com.example.websearchmcp.service.SearchResultCache.Hit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class WebSearchService {
 
     private static final Logger log = LoggerFactory.getLogger(WebSearchService.class);
 
-    private static final String BRAVE_API_BASE = "https://api.search.brave.com/res/v1/web/search";
-    private static final String SERPAPI_BASE = "https://serpapi.com/search";
+    /**
+     * Subscriber context key for the name of the tool a search is made for, used to tag its
+     * cache lookups.
+     */
+    public static final String TOOL_CONTEXT_KEY = "websearch.tool";
+
+    private static final Consumer<SearchResult> NO_PARTIALS = partial -> { };
 
-    private final WebClient webClient;
     private final WebSearchProperties properties;
+    private final Map<Provider, SearchProvider> providers = new EnumMap<>(Provider.class);
+    private final SearchResultCache cache;
+    private final QueryCanonicalizer canonicalizer;
+    private final RequestCoalescer<String, SearchResult> coalescer;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter refreshSuccesses;
+    private final Counter refreshFailures;
+    private final Counter staleServed;
+    private final Counter partialResults;
+    private final Timer firstResult;
+    private final Hedging hedging;
+    private final LatencyTracker primaryLatency;
+    private final Counter hedgeEligible;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final List<SearchProvider> failoverChain = new ArrayList<>();
+    private final Map<Provider, ProviderCircuitBreaker> breakers = new EnumMap<>(Provider.class);
+    private final Map<Provider, Counter> circuitRejections = new EnumMap<>(Provider.class);
+    private final Map<Provider, Counter> failovers = new EnumMap<>(Provider.class);
+    private final Duration callTimeout;
+    private final UpstreamRateLimiter upstreamLimiter;
+    private final ResultDeduplicator deduplicator;
+    private final SearchMetrics metrics;
+
+    @Autowired
+    public WebSearchService(WebSearchProperties properties, List<SearchProvider> providers, SearchResultCache cache,
+                            QueryCanonicalizer canonicalizer, ObjectProvider<SharedStore> sharedStore,
+                            MeterRegistry meterRegistry) {
+        this(properties, providers, cache, canonicalizer, sharedStore.getIfAvailable(), meterRegistry);
+        upstreamLimiter.startMonthlySync(Duration.ofMillis(properties.cluster().syncIntervalMillis()));
+    }
 
-    public WebSearchService(WebSearchProperties properties) {
+    WebSearchService(WebSearchProperties properties, List<SearchProvider> providers, SearchResultCache cache,
+                     QueryCanonicalizer canonicalizer, SharedStore sharedStore, MeterRegistry meterRegistry) {
         this.properties = properties;
-        this.webClient = WebClient.builder()
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+        providers.forEach(provider -> this.providers.put(provider.id(), provider));
+        this.cache = cache;
+        this.canonicalizer = canonicalizer;
+        this.coalescer = new RequestCoalescer<>("search", meterRegistry);
+        this.refreshSuccesses = Counter.builder("websearch.cache.refresh")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("websearch.cache.refresh")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.staleServed = Counter.builder("websearch.cache.stale.served")
+                .description("Hits served past the hard TTL because the provider was failing")
+                .register(meterRegistry);
+        this.partialResults = Counter.builder("websearch.search.partial")
+                .description("Paged searches returned without some failed pages; these are not cached")
+                .register(meterRegistry);
+        this.firstResult = Timer.builder("websearch.search.first.result")
+                .description("Time until a search had its first results, partial or complete")
+                .register(meterRegistry);
+
+        this.hedging = properties.hedging();
+        this.primaryLatency = new LatencyTracker(hedging.delayPercentile());
+        this.hedgeEligible = Counter.builder("websearch.hedge.searches")
+                .description("Upstream searches that could be hedged")
+                .register(meterRegistry);
+        this.hedgesSent = Counter.builder("websearch.hedge.sent")
+                .description("Searches where the primary was slow enough that a hedge request was sent")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("websearch.hedge.won")
+                .description("Hedge requests that answered before the primary")
+                .register(meterRegistry);
+        Gauge.builder("websearch.hedge.delay", this, service -> service.hedgeDelay().toMillis())
+                .description("Current hedge delay derived from primary provider latency")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        Resilience resilience = properties.resilience();
+        this.callTimeout = Duration.ofMillis(resilience.callTimeoutMillis());
+        this.upstreamLimiter = new UpstreamRateLimiter(properties.upstreamLimits(), sharedStore, meterRegistry);
+        this.deduplicator = new ResultDeduplicator(properties.deduplication(), meterRegistry);
+        this.metrics = new SearchMetrics(meterRegistry, this.providers.keySet());
+        Stream.concat(Stream.of(properties.provider()), resilience.failover().stream())
+                .distinct()
+                .map(this.providers::get)
+                .filter(Objects::nonNull)
+                .forEach(failoverChain::add);
+        for (Provider id : this.providers.keySet()) {
+            ProviderCircuitBreaker breaker = new ProviderCircuitBreaker(resilience, Clock.systemUTC());
+            breakers.put(id, breaker);
+            Gauge.builder("websearch.provider.circuit.state", breaker, b -> b.state().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .tag("provider", id.name())
+                    .register(meterRegistry);
+            circuitRejections.put(id, Counter.builder("websearch.provider.circuit.rejected")
+                    .description("Calls not sent because the provider's circuit was open")
+                    .tag("provider", id.name())
+                    .register(meterRegistry));
+            failovers.put(id, Counter.builder("websearch.provider.failover")
+                    .description("Searches that failed on this provider and moved to the next in the chain")
+                    .tag("provider", id.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        upstreamLimiter.close();
     }
 
-    @Cacheable(value = "searchResults", key = "#query + '-' + #count")
+    /**
+     * Blocking variant of {@link #searchAsync(String, int)} for the SYNC MCP server.
+     */
     public SearchResult search(String query, int count) {
+        return search(query, count, SearchPriority.NORMAL);
+    }
+
+    public SearchResult search(String query, int count, SearchPriority priority) {
+        return searchAsync(query, count, priority).block();
+    }
+
+    public Mono<SearchResult> searchAsync(String query, int count) {
+        return searchAsync(query, count, SearchPriority.NORMAL);
+    }
+
+    /**
+     * @param priority where upstream calls for this search queue behind others when a
+     *                 provider's outbound quota is saturated
+     */
+    public Mono<SearchResult> searchAsync(String query, int count, SearchPriority priority) {
+        return searchAsync(query, count, priority, NO_PARTIALS);
+    }
+
+    /**
+     * @param onPartial called with the results so far each time a page of a multi-page search
+     *                  arrives ahead of the rest, so callers can stream them; not called for
+     *                  cache hits or for searches that joined another caller's in-flight fetch
+     */
+    public Mono<SearchResult> searchAsync(String query, int count, SearchPriority priority,
+                                          Consumer<SearchResult> onPartial) {
         if (count <= 0) {
             count = properties.defaultResultCount();
         }
-        count = Math.min(count, 100);
+        int effectiveCount = Math.min(count, 100);
+        Provider provider = properties.provider();
 
-        return switch (properties.provider()) {
-            case BRAVE -> searchWithBrave(query, count);
-            case SERPAPI -> searchWithSerpApi(query, count);
-            case GOOGLE_CUSTOM_SEARCH -> searchWithGoogleCustomSearch(query, count);
-        };
+        return Mono.deferContextual(context -> {
+            long start = System.nanoTime();
+            AtomicBoolean firstSeen = new AtomicBoolean();
+            Runnable recordFirst = () -> {
+                if (firstSeen.compareAndSet(false, true)) {
+                    firstResult.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            };
+            Consumer<SearchResult> partials = partial -> {
+                recordFirst.run();
+                onPartial.accept(partial);
+            };
+
+            String cacheQuery = canonicalizer.canonicalize(query);
+            String tool = context.getOrDefault(TOOL_CONTEXT_KEY, "none");
+            return cache.get(provider, cacheQuery, effectiveCount)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(cached -> {
+                        metrics.recordCacheLookup(tool, cached.map(Hit::freshness).orElse(null));
+                        return cached
+                                .map(hit -> fromCache(hit, provider, query, cacheQuery, effectiveCount, priority,
+                                        partials))
+                                .orElseGet(() -> fetch(provider, query, cacheQuery, effectiveCount, priority,
+                                        partials));
+                    })
+                    .doOnNext(result -> recordFirst.run());
+        }).map(result -> {
+            // Cached and coalesced results may have been fetched for an equivalent spelling
+            if (!query.equals(result.query())) {
+                return new SearchResult(query, result.totalResults(), result.results());
+            }
+            return result;
+        });
     }
 
-    private SearchResult searchWithBrave(String query, int count) {
-        log.info("Executing Brave search for query: {}", query);
+    public BatchSearchResult searchBatch(List<String> queries, int count) {
+        return searchBatchAsync(queries, count).block();
+    }
 
-        String uri = UriComponentsBuilder.fromHttpUrl(BRAVE_API_BASE)
-                .queryParam("q", query)
-                .queryParam("count", count)
-                .queryParam("safesearch", "moderate")
-                .build()
-                .toUriString();
+    /**
+     * Runs the queries concurrently, up to {@code websearch.batch.concurrency} at a time, through
+     * the same cache and coalescing as single searches. Each query's failure is reported in its
+     * own entry. Queries still running at the batch deadline are reported as timed out; their
+     * upstream calls are left to finish and populate the cache.
+     */
+    public Mono<BatchSearchResult> searchBatchAsync(List<String> queries, int count) {
+        return searchBatchAsync(queries, count, result -> { });
+    }
 
-        JsonNode response = webClient.get()
-                .uri(uri)
-                .header("X-Subscription-Token", properties.apiKey())
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .block();
+    /**
+     * @param onResult called with each query's outcome as soon as it is known, in completion order
+     */
+    public Mono<BatchSearchResult> searchBatchAsync(List<String> queries, int count, Consumer<QueryResult> onResult) {
+        Batch batch = properties.batch();
+        if (queries.size() > batch.maxQueries()) {
+            return Mono.error(new IllegalArgumentException(
+                    "A batch may contain at most " + batch.maxQueries() + " queries"));
+        }
 
-        return parseBraveResponse(query, response);
+        QueryResult[] results = new QueryResult[queries.size()];
+        return Flux.range(0, queries.size())
+                .flatMap(index -> searchOne(queries.get(index), count)
+                        .map(result -> Map.entry(index, result)), batch.concurrency())
+                .take(Duration.ofMillis(batch.deadlineMillis()))
+                .doOnNext(entry -> {
+                    results[entry.getKey()] = entry.getValue();
+                    onResult.accept(entry.getValue());
+                })
+                .then(Mono.fromSupplier(() -> {
+                    for (int i = 0; i < results.length; i++) {
+                        if (results[i] == null) {
+                            results[i] = QueryResult.timedOut(queries.get(i));
+                        }
+                    }
+                    return new BatchSearchResult(List.of(results));
+                }));
     }
 
-    private SearchResult parseBraveResponse(String query, JsonNode response) {
-        List<SearchResultItem> items = new ArrayList<>();
+    private Mono<QueryResult> searchOne(String query, int count) {
+        if (query == null || query.isBlank()) {
+            return Mono.just(QueryResult.failed(query, "Search query cannot be empty"));
+        }
+        return searchAsync(query, count)
+                .map(result -> QueryResult.ok(query, result))
+                .onErrorResume(e -> {
+                    log.warn("Batch search failed for query: {}", query, e);
+                    return Mono.just(QueryResult.failed(query, e.getMessage()));
+                });
+    }
 
-        JsonNode webResults = response.path("web").path("results");
-        if (webResults.isArray()) {
-            for (JsonNode result : webResults) {
-                items.add(new SearchResultItem(
-                        result.path("title").asText(""),
-                        result.path("url").asText(""),
-                        result.path("description").asText(""),
-                        result.path("display_url").asText(""),
-                        "brave"
-                ));
+    private Mono<SearchResult> fromCache(Hit hit, Provider provider, String query, String cacheQuery, int count,
+                                         SearchPriority priority, Consumer<SearchResult> onPartial) {
+        return switch (hit.freshness()) {
+            case FRESH -> Mono.just(hit.result());
+            case STALE -> {
+                scheduleRefresh(provider, hit, cacheQuery);
+                yield Mono.just(hit.result());
+            }
+            case EXPIRED -> {
+                // Past the hard TTL: a background reload already failed, so don't make this caller wait on it
+                if (hit.refreshFailures() > 0) {
+                    staleServed.increment();
+                    scheduleRefresh(provider, hit, cacheQuery);
+                    yield Mono.just(hit.result());
+                }
+                yield fetch(provider, query, cacheQuery, count, priority, onPartial)
+                        .onErrorResume(e -> {
+                            log.warn("Search failed for query: {}, serving stale cached result", query, e);
+                            staleServed.increment();
+                            return Mono.just(hit.result());
+                        });
             }
+        };
+    }
+
+    private void scheduleRefresh(Provider provider, Hit hit, String cacheQuery) {
+        String key = provider + ":" + cacheQuery;
+        if (!refreshing.add(key)) {
+            return;
+        }
+        fetch(provider, hit.result().query(), cacheQuery, hit.requestedCount(), SearchPriority.BACKGROUND, NO_PARTIALS)
+                .doFinally(signal -> refreshing.remove(key))
+                .subscribe(
+                        result -> refreshSuccesses.increment(),
+                        e -> {
+                            log.warn("Background refresh failed for query: {}", cacheQuery, e);
+                            refreshFailures.increment();
+                            cache.recordRefreshFailure(provider, cacheQuery);
+                        });
+    }
+
+    private Mono<SearchResult> fetch(Provider provider, String query, String cacheQuery, int count,
+                                     SearchPriority priority, Consumer<SearchResult> onPartial) {
+        if (failoverChain.isEmpty()) {
+            return Mono.error(new IllegalStateException("No search provider configured for " + provider));
         }
 
-        return new SearchResult(query, items.size(), items);
+        // Cache misses for the same query share one upstream call
+        String key = provider + ":" + count + ":" + cacheQuery;
+        return coalescer.execute(key, () -> fetchWithFailover(0, query, count, priority, onPartial, null)
+                .doOnNext(pages -> {
+                    if (pages.complete()) {
+                        cache.put(provider, cacheQuery, count, pages.result(), pages.exhausted());
+                    } else {
+                        partialResults.increment();
+                    }
+                })
+                .map(PagedResult::result));
     }
 
-    private SearchResult searchWithSerpApi(String query, int count) {
-        log.info("Executing SerpAPI search for query: {}", query);
+    /**
+     * Tries the providers in failover order, skipping any whose circuit is open so callers
+     * fail fast instead of waiting on a provider that is known to be down.
+     */
+    private Mono<PagedResult> fetchWithFailover(int index, String query, int count, SearchPriority priority,
+                                                Consumer<SearchResult> onPartial, Throwable firstError) {
+        if (index == failoverChain.size()) {
+            return Mono.error(firstError);
+        }
+        SearchProvider searchProvider = failoverChain.get(index);
+        if (!breakers.get(searchProvider.id()).isCallPermitted()) {
+            circuitRejections.get(searchProvider.id()).increment();
+            Throwable error = firstError != null ? firstError : new ProviderUnavailableException(searchProvider.id());
+            return fetchWithFailover(index + 1, query, count, priority, onPartial, error);
+        }
 
-        String uri = UriComponentsBuilder.fromHttpUrl(SERPAPI_BASE)
-                .queryParam("q", query)
-                .queryParam("num", count)
-                .queryParam("api_key", properties.apiKey())
-                .queryParam("engine", "google")
-                .build()
-                .toUriString();
+        Mono<PagedResult> attempt = index == 0
+                ? fetchHedged(searchProvider, query, count, priority, onPartial)
+                : fetchPages(searchProvider, query, count, priority, onPartial);
+        return attempt.onErrorResume(e -> {
+            if (index + 1 < failoverChain.size()) {
+                log.warn("Search via {} failed for query: {}, failing over to {}", searchProvider.id(), query,
+                        failoverChain.get(index + 1).id(), e);
+                failovers.get(searchProvider.id()).increment();
+            }
+            return fetchWithFailover(index + 1, query, count, priority, onPartial,
+                    firstError != null ? firstError : e);
+        });
+    }
 
-        JsonNode response = webClient.get()
-                .uri(uri)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .block();
+    /**
+     * Sends the search to the primary provider and, if hedging is on and it hasn't answered
+     * within the hedge delay, to the secondary as well. The first successful response wins and
+     * the other request is cancelled.
+     */
+    private Mono<PagedResult> fetchHedged(SearchProvider primary, String query, int count, SearchPriority priority,
+                                          Consumer<SearchResult> onPartial) {
+        SearchProvider secondary = hedging.enabled() ? providers.get(hedging.secondary()) : null;
+        if (secondary == null) {
+            return fetchPages(primary, query, count, priority, onPartial);
+        }
 
-        return parseSerpApiResponse(query, response);
+        hedgeEligible.increment();
+        Mono<PagedResult> primaryCall = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return fetchPages(primary, query, count, priority, onPartial)
+                    .doFinally(signal -> {
+                        // A cancelled call still tells us the primary took at least this long
+                        if (signal != SignalType.ON_ERROR) {
+                            primaryLatency.record(System.nanoTime() - start);
+                        }
+                    });
+        });
+        Mono<PagedResult> hedgeCall = Mono.delay(hedgeDelay())
+                .then(Mono.defer(() -> {
+                    hedgesSent.increment();
+                    return fetchPages(secondary, query, count, priority, onPartial);
+                }))
+                .doOnNext(result -> hedgesWon.increment());
+
+        return Mono.firstWithValue(primaryCall, hedgeCall)
+                .onErrorMap(NoSuchElementException.class,
+                        e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e);
     }
 
-    private SearchResult parseSerpApiResponse(String query, JsonNode response) {
-        List<SearchResultItem> items = new ArrayList<>();
+    private Duration hedgeDelay() {
+        long observed = primaryLatency.percentileNanos();
+        if (observed < 0) {
+            return Duration.ofMillis(hedging.maxDelayMillis());
+        }
+        long millis = Math.max(hedging.minDelayMillis(), Math.min(hedging.maxDelayMillis(), observed / 1_000_000));
+        return Duration.ofMillis(millis);
+    }
 
-        JsonNode organicResults = response.path("organic_results");
-        if (organicResults.isArray()) {
-            for (JsonNode result : organicResults) {
-                items.add(new SearchResultItem(
-                        result.path("title").asText(""),
-                        result.path("link").asText(""),
-                        result.path("snippet").asText(""),
-                        result.path("displayed_link").asText(""),
-                        "serpapi"
-                ));
-            }
+    /**
+     * Splits a search the provider can't answer in one request into concurrent page requests
+     * and merges them back in rank order. Failed pages are left out rather than failing the
+     * search, unless every page failed. Each page that completes the leading run of results
+     * before the last one is reported to {@code onPartial}.
+     */
+    private Mono<PagedResult> fetchPages(SearchProvider searchProvider, String query, int count,
+                                         SearchPriority priority, Consumer<SearchResult> onPartial) {
+        int pageSize = searchProvider.maxPageSize();
+        if (count <= pageSize) {
+            return guarded(searchProvider, priority, () -> searchProvider.search(query, count))
+                    .map(result -> new PagedResult(deduplicate(result, count), true,
+                            result.results().size() < count));
         }
 
-        return new SearchResult(query, items.size(), items);
+        int pages = (count + pageSize - 1) / pageSize;
+        return Mono.defer(() -> {
+            List<Page> received = new ArrayList<>(pages);
+            return Flux.range(0, pages)
+                    .flatMapSequential(page -> {
+                        int offset = page * pageSize;
+                        return guarded(searchProvider, priority,
+                                () -> searchProvider.searchPage(query, offset, Math.min(pageSize, count - offset)))
+                                .map(Page::succeeded)
+                                .onErrorResume(e -> {
+                                    log.warn("Page at offset {} failed for query: {}", offset, query, e);
+                                    return Mono.just(Page.failed(e));
+                                });
+                    }, properties.maxPageConcurrency())
+                    // Sequential, so pages arrive here one at a time and in rank order
+                    .doOnNext(page -> {
+                        received.add(page);
+                        if (received.size() < pages && page.error() == null) {
+                            onPartial.accept(mergeItems(query, count, received));
+                        }
+                    })
+                    .then(Mono.defer(() -> merge(query, count, received)));
+        });
     }
 
-    private SearchResult searchWithGoogleCustomSearch(String query, int count) {
-        log.info("Executing Google Custom Search for query: {}", query);
+    /**
+     * Runs one upstream call through the provider's outbound quota, circuit breaker and call timeout.
+     */
+    private Mono<SearchResult> guarded(SearchProvider searchProvider, SearchPriority priority,
+                                       Supplier<Mono<SearchResult>> call) {
+        ProviderCircuitBreaker breaker = breakers.get(searchProvider.id());
+        return upstreamLimiter.acquire(searchProvider.id(), priority).then(Mono.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                // The circuit opened while this call was queued; nothing is sent, so give the token back
+                upstreamLimiter.refund(searchProvider.id());
+                circuitRejections.get(searchProvider.id()).increment();
+                return Mono.error(new ProviderUnavailableException(searchProvider.id()));
+            }
+            Provider id = searchProvider.id();
+            long start = System.nanoTime();
+            return call.get()
+                    .timeout(callTimeout)
+                    .doOnSuccess(result -> {
+                        long nanos = System.nanoTime() - start;
+                        breaker.onSuccess(nanos);
+                        metrics.recordUpstream(id, Outcome.SUCCESS, nanos);
+                    })
+                    .doOnError(e -> {
+                        long nanos = System.nanoTime() - start;
+                        if (isProviderFault(e)) {
+                            breaker.onFailure(nanos);
+                        } else {
+                            breaker.onIgnored();
+                        }
+                        metrics.recordUpstream(id, e instanceof TimeoutException ? Outcome.TIMEOUT : Outcome.ERROR, nanos);
+                    })
+                    .doOnCancel(() -> {
+                        breaker.onIgnored();
+                        metrics.recordUpstream(id, Outcome.CANCELLED, System.nanoTime() - start);
+                    });
+        }));
+    }
 
-        // Note: Google Custom Search requires both API key and CX (search engine ID)
-        // The API key in this case should be formatted as "apiKey:cx"
-        String[] keyParts = properties.apiKey().split(":");
-        if (keyParts.length != 2) {
-            throw new IllegalArgumentException("Google Custom Search requires API key in format 'apiKey:cx'");
+    /**
+     * Rate limiting, server errors, timeouts and transport failures say the provider is
+     * unhealthy. Other 4xx responses are about the request itself.
+     */
+    private static boolean isProviderFault(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
         }
+        return true;
+    }
 
-        String uri = UriComponentsBuilder.fromHttpUrl("https://www.googleapis.com/customsearch/v1")
-                .queryParam("q", query)
-                .queryParam("num", Math.min(count, 10)) // Google CSE max is 10 per request
-                .queryParam("key", keyParts[0])
-                .queryParam("cx", keyParts[1])
-                .build()
-                .toUriString();
+    private SearchResult deduplicate(SearchResult result, int count) {
+        List<SearchResultItem> items = deduplicator.deduplicate(result.results(), count);
+        return items.size() == result.results().size() ? result : new SearchResult(result.query(), items.size(), items);
+    }
 
-        JsonNode response = webClient.get()
-                .uri(uri)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .block();
+    private Mono<PagedResult> merge(String query, int count, List<Page> pages) {
+        SearchResult merged = mergeItems(query, count, pages);
+        Throwable failure = null;
+        for (Page page : pages) {
+            if (page.error() != null) {
+                failure = page.error();
+            }
+        }
 
-        return parseGoogleResponse(query, response);
+        if (merged.results().isEmpty() && failure != null) {
+            return Mono.error(failure);
+        }
+        int received = 0;
+        for (Page page : pages) {
+            if (page.error() == null) {
+                received += page.result().results().size();
+            }
+        }
+        return Mono.just(new PagedResult(merged, failure == null, received < count));
     }
 
-    private SearchResult parseGoogleResponse(String query, JsonNode response) {
+    private SearchResult mergeItems(String query, int count, List<Page> pages) {
         List<SearchResultItem> items = new ArrayList<>();
-
-        JsonNode searchItems = response.path("items");
-        if (searchItems.isArray()) {
-            for (JsonNode result : searchItems) {
-                items.add(new SearchResultItem(
-                        result.path("title").asText(""),
-                        result.path("link").asText(""),
-                        result.path("snippet").asText(""),
-                        result.path("displayLink").asText(""),
-                        "google"
-                ));
+        for (Page page : pages) {
+            if (page.error() == null) {
+                items.addAll(page.result().results());
             }
         }
+        // Rankings can shift between page requests, repeating a result on adjacent pages
+        List<SearchResultItem> distinct = deduplicator.deduplicate(items, count);
+        return new SearchResult(query, distinct.size(), distinct);
+    }
+
+    private record Page(SearchResult result, Throwable error) {
+        static Page succeeded(SearchResult result) {
+            return new Page(result, null);
+        }
+
+        static Page failed(Throwable error) {
+            return new Page(null, error);
+        }
+    }
 
-        return new SearchResult(query, items.size(), items);
+    /**
+     * {@code exhausted} is whether the provider returned fewer items than asked for, counted
+     * before deduplication, so asking it for more wouldn't find any.
+     */
+    private record PagedResult(SearchResult result, boolean complete, boolean exhausted) {
     }
 }
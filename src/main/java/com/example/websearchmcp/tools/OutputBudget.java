@@ -0,0 +1,100 @@
+package com.example.websearchmcp.tools;
+
+/**
+ * Caller-requested limit on the size of a tool's text output, in characters, estimated
+ * tokens, or both.
+ *
+ * <p>Tokens are estimated without a tokenizer: about four ASCII characters per token, and
+ * one token per other character. That is close for English text and URLs and errs high for
+ * everything else, so output that fits the estimate fits the real count too.
+ */
+record OutputBudget(long maxChars, long maxTokens) {
+
+    static final OutputBudget UNLIMITED = new OutputBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    // Token estimates are tracked in quarter tokens so they add up exactly across pieces
+    private static final int QUARTERS_PER_TOKEN = 4;
+
+    /**
+     * Budget from optional tool parameters; unset or non-positive values mean no limit.
+     */
+    static OutputBudget of(Integer maxTokens, Integer maxChars) {
+        if ((maxTokens == null || maxTokens <= 0) && (maxChars == null || maxChars <= 0)) {
+            return UNLIMITED;
+        }
+        return new OutputBudget(
+                maxChars != null && maxChars > 0 ? maxChars : Long.MAX_VALUE,
+                maxTokens != null && maxTokens > 0 ? maxTokens : Long.MAX_VALUE);
+    }
+
+    boolean unlimited() {
+        return maxChars == Long.MAX_VALUE && maxTokens == Long.MAX_VALUE;
+    }
+
+    /**
+     * An equal share of this budget for each of {@code parts} sections.
+     */
+    OutputBudget split(int parts) {
+        if (unlimited() || parts <= 1) {
+            return this;
+        }
+        return new OutputBudget(
+                maxChars == Long.MAX_VALUE ? maxChars : maxChars / parts,
+                maxTokens == Long.MAX_VALUE ? maxTokens : maxTokens / parts);
+    }
+
+    /**
+     * What is left of this budget after {@code text}.
+     */
+    OutputBudget less(CharSequence text) {
+        if (unlimited()) {
+            return this;
+        }
+        return new OutputBudget(
+                maxChars == Long.MAX_VALUE ? maxChars : Math.max(0, maxChars - text.length()),
+                maxTokens == Long.MAX_VALUE ? maxTokens : Math.max(0, maxTokens - estimateTokens(text)));
+    }
+
+    boolean fits(CharSequence text) {
+        return allows(text.length(), quarterTokens(text));
+    }
+
+    /**
+     * Whether output of {@code chars} characters and {@code quarterTokens} quarter tokens, as
+     * counted by {@link #quarterTokens}, is within the budget.
+     */
+    boolean allows(long chars, long quarterTokens) {
+        return chars <= maxChars
+                && (maxTokens == Long.MAX_VALUE || quarterTokens <= maxTokens * QUARTERS_PER_TOKEN);
+    }
+
+    /**
+     * The longest prefix of {@code text} that fits.
+     */
+    String cut(String text) {
+        long quarters = 0;
+        for (int i = 0; i < text.length(); i++) {
+            quarters += weight(text.charAt(i));
+            if (!allows(i + 1, quarters)) {
+                return text.substring(0, i);
+            }
+        }
+        return text;
+    }
+
+    static long quarterTokens(CharSequence text) {
+        long quarters = 0;
+        for (int i = 0; i < text.length(); i++) {
+            quarters += weight(text.charAt(i));
+        }
+        return quarters;
+    }
+
+    static long estimateTokens(CharSequence text) {
+        return (quarterTokens(text) + QUARTERS_PER_TOKEN - 1) / QUARTERS_PER_TOKEN;
+    }
+
+    private static int weight(char c) {
+        return c < 0x80 ? 1 : QUARTERS_PER_TOKEN;
+    }
+}
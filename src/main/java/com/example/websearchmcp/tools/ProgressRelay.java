@@ -0,0 +1,63 @@
+package com.example.websearchmcp.tools;
+
+import org.springaicommunity.mcp.context.McpRequestContextTypes;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams partial search results to the client as MCP progress notifications for the
+ * blocking tool handlers.
+ *
+ * <p>Partials arrive on Reactor threads, but the sync exchange blocks while it sends a
+ * notification, so they are handed back to the tool's own thread and sent from there.
+ */
+final class ProgressRelay {
+
+    private static final Object DONE = new Object();
+
+    private ProgressRelay() {
+    }
+
+    /**
+     * Whether the client asked for progress on this request. Clients that didn't send a
+     * progress token get the complete result only.
+     */
+    static boolean requested(McpRequestContextTypes<?> context) {
+        return context != null && context.request() != null && context.request().progressToken() != null;
+    }
+
+    /**
+     * Subscribes to the search, passing each partial it reports to {@code onProgress} on the
+     * calling thread, and returns its final value.
+     */
+    @SuppressWarnings("unchecked")
+    static <T, P> T await(Function<Consumer<P>, Mono<T>> search, Consumer<P> onProgress) {
+        BlockingQueue<Object> partials = new LinkedBlockingQueue<>();
+        CompletableFuture<T> result = search.apply(partials::add).toFuture();
+        result.whenComplete((value, error) -> partials.add(DONE));
+
+        try {
+            for (Object partial = partials.take(); partial != DONE; partial = partials.take()) {
+                onProgress.accept((P) partial);
+            }
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for search results", e);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.websearchmcp.tools;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.service.PageFetcher;
+import com.example.websearchmcp.service.WebSearchService;
+import com.example.websearchmcp.tools.ToolHandlers.Progress;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springaicommunity.mcp.context.McpAsyncRequestContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking tool handlers, registered when the MCP server runs in ASYNC mode
+ * ({@code spring.ai.mcp.server.type=ASYNC}). Same tools as {@link WebSearchTools}, but no
+ * thread is held while the upstream search is in flight.
+ */
+@Component
+public class ReactiveWebSearchTools {
+
+    private final ToolHandlers handlers;
+
+    public ReactiveWebSearchTools(WebSearchService searchService, PageFetcher pageFetcher,
+                                  WebSearchProperties properties, MeterRegistry meterRegistry) {
+        this.handlers = new ToolHandlers(searchService, pageFetcher, properties, meterRegistry);
+    }
+
+    @McpTool(name = "web_search", description = ToolHandlers.WEB_SEARCH)
+    public Mono<String> webSearch(
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_QUERY, required = true) String query,
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_MAX_RESULTS, required = false) Integer maxResults,
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_MAX_TOKENS, required = false) Integer maxTokens,
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_MAX_CHARS, required = false) Integer maxChars,
+            McpAsyncRequestContext context
+    ) {
+        return handlers.webSearch(query, maxResults, maxTokens, maxChars, progressTo(context));
+    }
+
+    @McpTool(name = "web_search_json", description = ToolHandlers.WEB_SEARCH_JSON)
+    public Mono<SearchResult> webSearchJson(
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_JSON_QUERY, required = true) String query,
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_JSON_MAX_RESULTS, required = false) Integer maxResults
+    ) {
+        return handlers.webSearchJson(query, maxResults);
+    }
+
+    @McpTool(name = "quick_search", description = ToolHandlers.QUICK_SEARCH)
+    public Mono<String> quickSearch(
+            @McpToolParam(description = ToolHandlers.QUICK_SEARCH_QUERY, required = true) String query
+    ) {
+        return handlers.quickSearch(query);
+    }
+
+    @McpTool(name = "web_search_batch", description = ToolHandlers.BATCH)
+    public Mono<String> webSearchBatch(
+            @McpToolParam(description = ToolHandlers.BATCH_QUERIES, required = true) List<String> queries,
+            @McpToolParam(description = ToolHandlers.BATCH_MAX_RESULTS, required = false) Integer maxResults,
+            @McpToolParam(description = ToolHandlers.BATCH_MAX_TOKENS, required = false) Integer maxTokens,
+            @McpToolParam(description = ToolHandlers.BATCH_MAX_CHARS, required = false) Integer maxChars,
+            McpAsyncRequestContext context
+    ) {
+        return handlers.webSearchBatch(queries, maxResults, maxTokens, maxChars, progressTo(context));
+    }
+
+    @McpTool(name = "fetch_pages", description = ToolHandlers.FETCH_PAGES)
+    public Mono<String> fetchPages(
+            @McpToolParam(description = ToolHandlers.FETCH_PAGES_URLS, required = true) List<String> urls
+    ) {
+        return handlers.fetchPages(urls);
+    }
+
+    @McpTool(name = "search_and_read", description = ToolHandlers.SEARCH_AND_READ)
+    public Mono<String> searchAndRead(
+            @McpToolParam(description = ToolHandlers.SEARCH_AND_READ_QUERY, required = true) String query,
+            @McpToolParam(description = ToolHandlers.SEARCH_AND_READ_MAX_PAGES, required = false) Integer maxPages
+    ) {
+        return handlers.searchAndRead(query, maxPages);
+    }
+
+    /**
+     * Sends progress notifications as they are reported, or returns {@code null} if the
+     * client didn't ask for them.
+     */
+    private static Consumer<Progress> progressTo(McpAsyncRequestContext context) {
+        if (!ProgressRelay.requested(context)) {
+            return null;
+        }
+        return progress -> context.progress(spec -> spec
+                .progress(progress.progress())
+                .total(progress.total())
+                .message(progress.message())).subscribe();
+    }
+}
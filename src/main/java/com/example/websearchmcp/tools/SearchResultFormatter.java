@@ -0,0 +1,170 @@
+package com.example.websearchmcp.tools;
+
+import com.example.websearchmcp.model.BatchSearchResult;
+import com.example.websearchmcp.model.BatchSearchResult.QueryResult;
+import com.example.websearchmcp.model.FetchedPage;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+
+import java.util.List;
+
+/**
+ * Renders search results as the markdown text returned by the text-based tools.
+ */
+final class SearchResultFormatter {
+
+    // Descriptions are cut to this length first when the full text is over budget
+    private static final int SHORT_DESCRIPTION_CHARS = 160;
+
+    private SearchResultFormatter() {
+    }
+
+    static String format(SearchResult result) {
+        if (result.results().isEmpty()) {
+            return "No results found for: " + result.query();
+        }
+
+        // Sized up front so the text is built in one buffer without regrowing
+        StringBuilder sb = new StringBuilder(estimateLength(result));
+        appendHeader(sb, result);
+        int index = 1;
+        for (SearchResultItem item : result.results()) {
+            appendItem(sb, index++, item, item.description());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Renders the result within the budget. If the full text doesn't fit, descriptions are
+     * shortened and then the lowest-ranked items are dropped, with a note saying how many.
+     */
+    static String format(SearchResult result, OutputBudget budget) {
+        String full = format(result);
+        if (budget.unlimited() || budget.fits(full)) {
+            return full;
+        }
+
+        StringBuilder sb = new StringBuilder(full.length());
+        appendHeader(sb, result);
+        // Room for the omission note, sized for the largest count it could report
+        String reserve = omittedNote(result.results().size());
+        long chars = sb.length() + reserve.length();
+        long quarters = OutputBudget.quarterTokens(sb) + OutputBudget.quarterTokens(reserve);
+
+        int index = 1;
+        StringBuilder item = new StringBuilder();
+        for (SearchResultItem entry : result.results()) {
+            item.setLength(0);
+            appendItem(item, index, entry, shorten(entry.description()));
+            long itemQuarters = OutputBudget.quarterTokens(item);
+            if (!budget.allows(chars + item.length(), quarters + itemQuarters)) {
+                break;
+            }
+            sb.append(item);
+            chars += item.length();
+            quarters += itemQuarters;
+            index++;
+        }
+
+        int omitted = result.results().size() - (index - 1);
+        if (omitted > 0) {
+            sb.append(omittedNote(omitted));
+        }
+        return budget.cut(sb.toString());
+    }
+
+    static String formatBatch(BatchSearchResult batch) {
+        return formatBatch(batch, OutputBudget.UNLIMITED);
+    }
+
+    /**
+     * Renders each query's section within an equal share of the budget.
+     */
+    static String formatBatch(BatchSearchResult batch, OutputBudget budget) {
+        OutputBudget share = budget.split(batch.results().size());
+        StringBuilder sb = new StringBuilder();
+        int index = 1;
+        for (QueryResult entry : batch.results()) {
+            String heading = "## " + index++ + ". " + entry.query() + "\n\n";
+            OutputBudget section = share.less(heading);
+            sb.append(heading).append(section.cut(format(entry, section)));
+        }
+        return sb.toString();
+    }
+
+    static String format(QueryResult entry) {
+        return format(entry, OutputBudget.UNLIMITED);
+    }
+
+    static String format(QueryResult entry, OutputBudget budget) {
+        return switch (entry.status()) {
+            case OK -> format(entry.result(), budget);
+            case FAILED -> "Error performing search: " + entry.error() + "\n\n";
+            case TIMED_OUT -> "Timed out: " + entry.error() + "\n\n";
+        };
+    }
+
+    static String formatPages(List<FetchedPage> pages) {
+        if (pages.isEmpty()) {
+            return "No pages to fetch";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        int index = 1;
+        for (FetchedPage page : pages) {
+            String heading = page.title() == null || page.title().isBlank() ? page.url() : page.title();
+            sb.append("## ").append(index++).append(". ").append(heading).append("\n");
+            sb.append("URL: ").append(page.url()).append("\n\n");
+            if (!page.succeeded()) {
+                sb.append("Error fetching page: ").append(page.error()).append("\n\n");
+                continue;
+            }
+            sb.append(page.text().isEmpty() ? "(No readable text)" : page.text()).append("\n\n");
+            if (page.truncated()) {
+                sb.append("[Page truncated]\n\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendHeader(StringBuilder sb, SearchResult result) {
+        sb.append("Search Results for: ").append(result.query()).append("\n");
+        sb.append("Found ").append(result.totalResults()).append(" results:\n\n");
+    }
+
+    private static void appendItem(StringBuilder sb, int index, SearchResultItem item, String description) {
+        sb.append(index).append(". **").append(item.title()).append("**\n");
+        sb.append("   URL: ").append(item.url()).append("\n");
+        if (description != null && !description.isBlank()) {
+            sb.append("   ").append(description).append("\n");
+        }
+        sb.append("\n");
+    }
+
+    private static int estimateLength(SearchResult result) {
+        int length = 64 + length(result.query());
+        for (SearchResultItem item : result.results()) {
+            length += 24 + length(item.title()) + length(item.url()) + length(item.description());
+        }
+        return length;
+    }
+
+    private static int length(String value) {
+        return value == null ? 4 : value.length();
+    }
+
+    /**
+     * Cuts a description to {@value #SHORT_DESCRIPTION_CHARS} characters at a word boundary.
+     */
+    private static String shorten(String description) {
+        if (description == null || description.length() <= SHORT_DESCRIPTION_CHARS) {
+            return description;
+        }
+        int end = description.lastIndexOf(' ', SHORT_DESCRIPTION_CHARS - 1);
+        return description.substring(0, end > 0 ? end : SHORT_DESCRIPTION_CHARS - 1) + "…";
+    }
+
+    private static String omittedNote(int omitted) {
+        return "_" + omitted + " lower-ranked results omitted to fit the output budget._\n";
+    }
+}
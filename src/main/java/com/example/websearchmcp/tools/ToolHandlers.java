@@ -0,0 +1,202 @@
+package com.example.websearchmcp.tools;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.example.websearchmcp.service.PageFetcher;
+import com.example.websearchmcp.service.SearchPriority;
+import com.example.websearchmcp.service.WebSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The tools themselves, shared by {@link WebSearchTools} and {@link ReactiveWebSearchTools}:
+ * argument checks, the search, formatting and metrics. The two tool classes only adapt the
+ * result and progress notifications to the SYNC or ASYNC server, and take their descriptions
+ * from here so both advertise the same tools.
+ */
+final class ToolHandlers {
+
+    static final String WEB_SEARCH = "Search the web for information. Returns a list of relevant web pages with titles, URLs, and descriptions. Use this tool when you need to find current information, facts, or resources from the internet.";
+    static final String WEB_SEARCH_QUERY = "The search query string. Be specific and use relevant keywords for better results.";
+    static final String WEB_SEARCH_MAX_RESULTS = "Maximum number of results to return. Default is 10, maximum is 100.";
+    static final String WEB_SEARCH_MAX_TOKENS = "Approximate maximum number of tokens of output. Lower-ranked results are dropped to fit.";
+    static final String WEB_SEARCH_MAX_CHARS = "Maximum number of characters of output. Lower-ranked results are dropped to fit.";
+
+    static final String WEB_SEARCH_JSON = "Search the web and return results as structured JSON. Use this when you need to programmatically process search results.";
+    static final String WEB_SEARCH_JSON_QUERY = "The search query string";
+    static final String WEB_SEARCH_JSON_MAX_RESULTS = "Maximum number of results to return (default: 10, max: 100)";
+
+    static final String QUICK_SEARCH = "Perform a quick web search returning only the top 3 most relevant results. Ideal for quick fact-checking or when you need just a few authoritative sources.";
+    static final String QUICK_SEARCH_QUERY = "The search query";
+
+    static final String BATCH = "Run several related web searches in one call. Queries are searched in parallel and each gets its own results or error. Use this instead of calling web_search repeatedly when researching a topic from several angles.";
+    static final String BATCH_QUERIES = "The search queries. Batches larger than the server's limit (websearch.batch.max-queries) are rejected.";
+    static final String BATCH_MAX_RESULTS = "Maximum number of results per query. Default is 5, maximum is 100.";
+    static final String BATCH_MAX_TOKENS = "Approximate maximum number of tokens of output. Shared equally between the queries.";
+    static final String BATCH_MAX_CHARS = "Maximum number of characters of output. Shared equally between the queries.";
+
+    static final String FETCH_PAGES = "Fetch web pages and return their readable text, without scripts, styles or markup. Use this to read the full content of pages found with web_search.";
+    static final String FETCH_PAGES_URLS = "The page URLs, most important first. URLs beyond the server's page limit (websearch.fetch.max-pages) are not fetched.";
+
+    static final String SEARCH_AND_READ = "Search the web and read the top results in one call. Returns the readable text of each of the top result pages. Use this when the search snippets are not enough to answer the question.";
+    static final String SEARCH_AND_READ_QUERY = "The search query string";
+    static final String SEARCH_AND_READ_MAX_PAGES = "Number of top results to read. Default is 3; more than the server's page limit (websearch.fetch.max-pages) are not read.";
+
+    private static final Logger log = LoggerFactory.getLogger(ToolHandlers.class);
+
+    /**
+     * A progress notification for the client: how far along the call is and what it has so far.
+     */
+    record Progress(int progress, int total, String message) {
+    }
+
+    private final WebSearchService searchService;
+    private final PageFetcher pageFetcher;
+    private final int pageLimit;
+    private final ToolMetrics webSearchMetrics;
+    private final ToolMetrics webSearchJsonMetrics;
+    private final ToolMetrics quickSearchMetrics;
+    private final ToolMetrics batchMetrics;
+    private final ToolMetrics fetchPagesMetrics;
+    private final ToolMetrics searchAndReadMetrics;
+
+    ToolHandlers(WebSearchService searchService, PageFetcher pageFetcher, WebSearchProperties properties,
+                 MeterRegistry meterRegistry) {
+        this.searchService = searchService;
+        this.pageFetcher = pageFetcher;
+        this.pageLimit = properties.fetch().maxPages();
+        this.webSearchMetrics = new ToolMetrics("web_search", meterRegistry);
+        this.webSearchJsonMetrics = new ToolMetrics("web_search_json", meterRegistry);
+        this.quickSearchMetrics = new ToolMetrics("quick_search", meterRegistry);
+        this.batchMetrics = new ToolMetrics("web_search_batch", meterRegistry);
+        this.fetchPagesMetrics = new ToolMetrics("fetch_pages", meterRegistry);
+        this.searchAndReadMetrics = new ToolMetrics("search_and_read", meterRegistry);
+    }
+
+    /**
+     * @param onProgress called with the leading pages of a large search as they arrive, or
+     *                   {@code null} if the client didn't ask for progress
+     */
+    Mono<String> webSearch(String query, Integer maxResults, Integer maxTokens, Integer maxChars,
+                           Consumer<Progress> onProgress) {
+        long start = System.nanoTime();
+        log.info("MCP web_search tool invoked with query: {}", query);
+
+        if (query == null || query.isBlank()) {
+            return Mono.just(webSearchMetrics.rejected(start, "Error: Search query cannot be empty"));
+        }
+
+        int count = (maxResults != null && maxResults > 0) ? maxResults : 10;
+        OutputBudget budget = OutputBudget.of(maxTokens, maxChars);
+        Mono<SearchResult> search = onProgress == null
+                ? searchService.searchAsync(query, count)
+                : searchService.searchAsync(query, count, SearchPriority.NORMAL, partial -> onProgress.accept(
+                        new Progress(partial.results().size(), count, SearchResultFormatter.format(partial, budget))));
+        return webSearchMetrics.tagged(search)
+                .map(result -> webSearchMetrics.succeeded(start, SearchResultFormatter.format(result, budget)))
+                .onErrorResume(e -> {
+                    log.error("Search failed for query: {}", query, e);
+                    return Mono.just(webSearchMetrics.failed(start, "Error performing search: " + e.getMessage()));
+                });
+    }
+
+    Mono<SearchResult> webSearchJson(String query, Integer maxResults) {
+        long start = System.nanoTime();
+        log.info("MCP web_search_json tool invoked with query: {}", query);
+
+        if (query == null || query.isBlank()) {
+            return Mono.just(webSearchJsonMetrics.rejected(start, new SearchResult(query, 0, List.of())));
+        }
+
+        int count = (maxResults != null && maxResults > 0) ? maxResults : 10;
+        return webSearchJsonMetrics.tagged(searchService.searchAsync(query, count))
+                .map(result -> webSearchJsonMetrics.succeeded(start, result))
+                .doOnError(e -> webSearchJsonMetrics.failed(start, e));
+    }
+
+    Mono<String> quickSearch(String query) {
+        long start = System.nanoTime();
+        log.info("MCP quick_search tool invoked with query: {}", query);
+
+        if (query == null || query.isBlank()) {
+            return Mono.just(quickSearchMetrics.rejected(start, "Error: Search query cannot be empty"));
+        }
+
+        return quickSearchMetrics.tagged(searchService.searchAsync(query, 3, SearchPriority.INTERACTIVE))
+                .map(result -> quickSearchMetrics.succeeded(start, SearchResultFormatter.format(result)))
+                .onErrorResume(e -> {
+                    log.error("Quick search failed for query: {}", query, e);
+                    return Mono.just(quickSearchMetrics.failed(start, "Error performing search: " + e.getMessage()));
+                });
+    }
+
+    /**
+     * @param onProgress called with each query's results as soon as it finishes, or
+     *                   {@code null} if the client didn't ask for progress
+     */
+    Mono<String> webSearchBatch(List<String> queries, Integer maxResults, Integer maxTokens, Integer maxChars,
+                                Consumer<Progress> onProgress) {
+        long start = System.nanoTime();
+        log.info("MCP web_search_batch tool invoked with {} queries", queries == null ? 0 : queries.size());
+
+        if (queries == null || queries.isEmpty()) {
+            return Mono.just(batchMetrics.rejected(start, "Error: At least one search query is required"));
+        }
+
+        int count = (maxResults != null && maxResults > 0) ? maxResults : 5;
+        OutputBudget budget = OutputBudget.of(maxTokens, maxChars);
+        AtomicInteger completed = new AtomicInteger();
+        return batchMetrics.tagged(onProgress == null
+                        ? searchService.searchBatchAsync(queries, count)
+                        : searchService.searchBatchAsync(queries, count, entry -> onProgress.accept(new Progress(
+                                completed.incrementAndGet(), queries.size(),
+                                "## " + entry.query() + "\n\n" + SearchResultFormatter.format(entry, budget.split(queries.size()))))))
+                .map(batch -> batchMetrics.succeeded(start, SearchResultFormatter.formatBatch(batch, budget)))
+                .onErrorResume(e -> {
+                    log.error("Batch search failed for queries: {}", queries, e);
+                    return Mono.just(batchMetrics.failed(start, "Error performing search: " + e.getMessage()));
+                });
+    }
+
+    Mono<String> fetchPages(List<String> urls) {
+        long start = System.nanoTime();
+        log.info("MCP fetch_pages tool invoked with {} URLs", urls == null ? 0 : urls.size());
+
+        if (urls == null || urls.isEmpty()) {
+            return Mono.just(fetchPagesMetrics.rejected(start, "Error: At least one URL is required"));
+        }
+
+        return pageFetcher.fetchAll(urls)
+                .map(pages -> fetchPagesMetrics.succeeded(start, SearchResultFormatter.formatPages(pages)))
+                .onErrorResume(e -> {
+                    log.error("Fetching pages failed for URLs: {}", urls, e);
+                    return Mono.just(fetchPagesMetrics.failed(start, "Error fetching pages: " + e.getMessage()));
+                });
+    }
+
+    Mono<String> searchAndRead(String query, Integer maxPages) {
+        long start = System.nanoTime();
+        log.info("MCP search_and_read tool invoked with query: {}", query);
+
+        if (query == null || query.isBlank()) {
+            return Mono.just(searchAndReadMetrics.rejected(start, "Error: Search query cannot be empty"));
+        }
+
+        int count = Math.min((maxPages != null && maxPages > 0) ? maxPages : 3, pageLimit);
+        return searchAndReadMetrics.tagged(searchService.searchAsync(query, count))
+                .flatMap(result -> pageFetcher.fetchAll(result.results().stream().map(SearchResultItem::url).toList()))
+                .map(pages -> searchAndReadMetrics.succeeded(start,
+                        "Pages for: " + query + "\n\n" + SearchResultFormatter.formatPages(pages)))
+                .onErrorResume(e -> {
+                    log.error("Search and read failed for query: {}", query, e);
+                    return Mono.just(searchAndReadMetrics.failed(start, "Error performing search: " + e.getMessage()));
+                });
+    }
+}
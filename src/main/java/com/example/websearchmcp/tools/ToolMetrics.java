@@ -0,0 +1,84 @@
+package com.example.websearchmcp.tools;
+
+import com.example.websearchmcp.service.WebSearchService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Call time by outcome and response size for one MCP tool. Meters and the subscriber context
+ * that names the tool to {@link WebSearchService} are built once, when the tool class is
+ * created, so recording a call allocates nothing.
+ *
+ * <p>Outcomes are {@code success}, {@code error} for calls that failed, and {@code rejected}
+ * for calls turned away because of their arguments.
+ */
+final class ToolMetrics {
+
+    private static final Duration[] CALL_SLOS = {
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+            Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10)};
+    private static final double[] RESPONSE_SLOS = {1024, 4096, 16384, 65536};
+
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Timer rejected;
+    private final DistributionSummary responseChars;
+    private final Context context;
+
+    ToolMetrics(String tool, MeterRegistry meterRegistry) {
+        this.succeeded = callTimer(tool, "success", meterRegistry);
+        this.failed = callTimer(tool, "error", meterRegistry);
+        this.rejected = callTimer(tool, "rejected", meterRegistry);
+        this.responseChars = DistributionSummary.builder("websearch.tool.response.size")
+                .description("Characters of text returned to the client")
+                .baseUnit("characters")
+                .tag("tool", tool)
+                .serviceLevelObjectives(RESPONSE_SLOS)
+                .register(meterRegistry);
+        this.context = Context.of(WebSearchService.TOOL_CONTEXT_KEY, tool);
+    }
+
+    private static Timer callTimer(String tool, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("websearch.tool.calls")
+                .description("MCP tool calls, from invocation to the response")
+                .tag("tool", tool)
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(CALL_SLOS)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Names this tool to the searches {@code call} makes.
+     */
+    <T> Mono<T> tagged(Mono<T> call) {
+        return call.contextWrite(context);
+    }
+
+    String succeeded(long startNanos, String response) {
+        responseChars.record(response.length());
+        return record(succeeded, startNanos, response);
+    }
+
+    <T> T succeeded(long startNanos, T response) {
+        return record(succeeded, startNanos, response);
+    }
+
+    <T> T failed(long startNanos, T response) {
+        return record(failed, startNanos, response);
+    }
+
+    <T> T rejected(long startNanos, T response) {
+        return record(rejected, startNanos, response);
+    }
+
+    private static <T> T record(Timer timer, long startNanos, T response) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return response;
+    }
+}
@@ -1,99 +1,100 @@
 package com.example.websearchmcp.tools;
 
+import com.example.websearchmcp.config.WebSearchProperties;
 import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.service.PageFetcher;
 import com.example.websearchmcp.service.WebSearchService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.websearchmcp.tools.ToolHandlers.Progress;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springaicommunity.mcp.annotation.McpTool;
 import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Blocking tool handlers, registered when the MCP server runs in SYNC mode. Each waits for
+ * the {@link ToolHandlers} result on the calling thread.
+ */
 @Component
 public class WebSearchTools {
 
-    private static final Logger log = LoggerFactory.getLogger(WebSearchTools.class);
-
-    private final WebSearchService searchService;
+    private final ToolHandlers handlers;
 
-    public WebSearchTools(WebSearchService searchService) {
-        this.searchService = searchService;
+    public WebSearchTools(WebSearchService searchService, PageFetcher pageFetcher, WebSearchProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.handlers = new ToolHandlers(searchService, pageFetcher, properties, meterRegistry);
     }
 
-    @McpTool(name = "web_search", description = "Search the web for information. Returns a list of relevant web pages with titles, URLs, and descriptions. Use this tool when you need to find current information, facts, or resources from the internet.")
+    @McpTool(name = "web_search", description = ToolHandlers.WEB_SEARCH)
     public String webSearch(
-            @McpToolParam(description = "The search query string. Be specific and use relevant keywords for better results.", required = true) String query,
-            @McpToolParam(description = "Maximum number of results to return. Default is 10, maximum is 100.", required = false) Integer maxResults
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_QUERY, required = true) String query,
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_MAX_RESULTS, required = false) Integer maxResults,
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_MAX_TOKENS, required = false) Integer maxTokens,
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_MAX_CHARS, required = false) Integer maxChars,
+            McpSyncRequestContext context
     ) {
-        log.info("MCP web_search tool invoked with query: {}", query);
-
-        if (query == null || query.isBlank()) {
-            return "Error: Search query cannot be empty";
-        }
-
-        try {
-            int count = (maxResults != null && maxResults > 0) ? maxResults : 10;
-            SearchResult result = searchService.search(query, count);
-
-            return formatSearchResults(result);
-        } catch (Exception e) {
-            log.error("Search failed for query: {}", query, e);
-            return "Error performing search: " + e.getMessage();
-        }
+        return withProgress(context,
+                onProgress -> handlers.webSearch(query, maxResults, maxTokens, maxChars, onProgress));
     }
 
-    @McpTool(name = "web_search_json", description = "Search the web and return results as structured JSON. Use this when you need to programmatically process search results.")
+    @McpTool(name = "web_search_json", description = ToolHandlers.WEB_SEARCH_JSON)
     public SearchResult webSearchJson(
-            @McpToolParam(description = "The search query string", required = true) String query,
-            @McpToolParam(description = "Maximum number of results to return (default: 10, max: 100)", required = false) Integer maxResults
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_JSON_QUERY, required = true) String query,
+            @McpToolParam(description = ToolHandlers.WEB_SEARCH_JSON_MAX_RESULTS, required = false) Integer maxResults
     ) {
-        log.info("MCP web_search_json tool invoked with query: {}", query);
-
-        if (query == null || query.isBlank()) {
-            return new SearchResult(query, 0, java.util.List.of());
-        }
-
-        int count = (maxResults != null && maxResults > 0) ? maxResults : 10;
-        return searchService.search(query, count);
+        return handlers.webSearchJson(query, maxResults).block();
     }
 
-    @McpTool(name = "quick_search", description = "Perform a quick web search returning only the top 3 most relevant results. Ideal for quick fact-checking or when you need just a few authoritative sources.")
+    @McpTool(name = "quick_search", description = ToolHandlers.QUICK_SEARCH)
     public String quickSearch(
-            @McpToolParam(description = "The search query", required = true) String query
+            @McpToolParam(description = ToolHandlers.QUICK_SEARCH_QUERY, required = true) String query
     ) {
-        log.info("MCP quick_search tool invoked with query: {}", query);
-
-        if (query == null || query.isBlank()) {
-            return "Error: Search query cannot be empty";
-        }
+        return handlers.quickSearch(query).block();
+    }
 
-        try {
-            SearchResult result = searchService.search(query, 3);
-            return formatSearchResults(result);
-        } catch (Exception e) {
-            log.error("Quick search failed for query: {}", query, e);
-            return "Error performing search: " + e.getMessage();
-        }
+    @McpTool(name = "web_search_batch", description = ToolHandlers.BATCH)
+    public String webSearchBatch(
+            @McpToolParam(description = ToolHandlers.BATCH_QUERIES, required = true) List<String> queries,
+            @McpToolParam(description = ToolHandlers.BATCH_MAX_RESULTS, required = false) Integer maxResults,
+            @McpToolParam(description = ToolHandlers.BATCH_MAX_TOKENS, required = false) Integer maxTokens,
+            @McpToolParam(description = ToolHandlers.BATCH_MAX_CHARS, required = false) Integer maxChars,
+            McpSyncRequestContext context
+    ) {
+        return withProgress(context,
+                onProgress -> handlers.webSearchBatch(queries, maxResults, maxTokens, maxChars, onProgress));
     }
 
-    private String formatSearchResults(SearchResult result) {
-        if (result.results().isEmpty()) {
-            return "No results found for: " + result.query();
-        }
+    @McpTool(name = "fetch_pages", description = ToolHandlers.FETCH_PAGES)
+    public String fetchPages(
+            @McpToolParam(description = ToolHandlers.FETCH_PAGES_URLS, required = true) List<String> urls
+    ) {
+        return handlers.fetchPages(urls).block();
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("Search Results for: ").append(result.query()).append("\n");
-        sb.append("Found ").append(result.totalResults()).append(" results:\n\n");
+    @McpTool(name = "search_and_read", description = ToolHandlers.SEARCH_AND_READ)
+    public String searchAndRead(
+            @McpToolParam(description = ToolHandlers.SEARCH_AND_READ_QUERY, required = true) String query,
+            @McpToolParam(description = ToolHandlers.SEARCH_AND_READ_MAX_PAGES, required = false) Integer maxPages
+    ) {
+        return handlers.searchAndRead(query, maxPages).block();
+    }
 
-        int index = 1;
-        for (SearchResult.SearchResultItem item : result.results()) {
-            sb.append(index++).append(". **").append(item.title()).append("**\n");
-            sb.append("   URL: ").append(item.url()).append("\n");
-            if (item.description() != null && !item.description().isBlank()) {
-                sb.append("   ").append(item.description()).append("\n");
-            }
-            sb.append("\n");
+    /**
+     * Waits for the call, sending its progress notifications from this thread if the client
+     * asked for them.
+     */
+    private static <T> T withProgress(McpSyncRequestContext context, Function<Consumer<Progress>, Mono<T>> call) {
+        if (!ProgressRelay.requested(context)) {
+            return call.apply(null).block();
         }
-
-        return sb.toString();
+        return ProgressRelay.await(call, (Progress progress) -> context.progress(spec -> spec
+                .progress(progress.progress())
+                .total(progress.total())
+                .message(progress.message())));
     }
 }
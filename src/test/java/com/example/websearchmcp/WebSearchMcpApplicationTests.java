@@ -4,7 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(properties = "websearch.provider-http.warm-up-connections=0")
 @ActiveProfiles("local")
 class WebSearchMcpApplicationTests {
 
@@ -0,0 +1,194 @@
+package com.example.websearchmcp.benchmark;
+
+import com.example.websearchmcp.WebSearchMcpApplication;
+import com.example.websearchmcp.benchmark.StubSearchProviderServer.LatencyDistribution;
+import com.example.websearchmcp.benchmark.StubSearchProviderServer.Route;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Capacity-planning scenarios against the real {@code /mcp} endpoint, with every provider
+ * call answered by {@link StubSearchProviderServer}. Each scenario starts a fresh server, so
+ * caches and circuit breakers start empty:
+ *
+ * <ul>
+ *   <li>{@code cold}: every call searches a query never seen before, so all of them go upstream.</li>
+ *   <li>{@code hot}: every call searches the same query, which concurrent callers share.</li>
+ *   <li>{@code zipfian}: queries follow a Zipf distribution over a fixed set, like real traffic.</li>
+ *   <li>{@code brownout}: the Zipfian mix after a warm-up, with Brave slow and failing half its
+ *       requests and SerpAPI configured as failover.</li>
+ * </ul>
+ *
+ * Each reports throughput, call latency percentiles, the {@code web_search} cache hit ratio
+ * and the requests the stub providers received. Opt-in:
+ *
+ * <pre>./mvnw test -Dtest=LoadScenarioBenchmark -Dbenchmark=true -Dbenchmark.sessions=2000</pre>
+ *
+ * {@code benchmark.scenarios} picks scenarios by name (comma-separated), and
+ * {@code benchmark.virtual-threads} switches request handling to virtual threads.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoadScenarioBenchmark {
+
+    private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 1000);
+    private static final int CALLS_PER_SESSION = Integer.getInteger("benchmark.calls-per-session", 5);
+    private static final int DISTINCT_QUERIES = Integer.getInteger("benchmark.distinct-queries", 10_000);
+    private static final double ZIPF_EXPONENT =
+            Double.parseDouble(System.getProperty("benchmark.zipf-exponent", "1.0"));
+    private static final LatencyDistribution PROVIDER_LATENCY = LatencyDistribution.logNormal(
+            Duration.ofMillis(Long.getLong("benchmark.provider-median-ms", 300)),
+            Duration.ofMillis(Long.getLong("benchmark.provider-p99-ms", 1500)));
+    private static final LatencyDistribution BROWNOUT_LATENCY =
+            LatencyDistribution.logNormal(Duration.ofSeconds(2), Duration.ofSeconds(12));
+    private static final double BROWNOUT_ERROR_RATE = 0.5;
+    private static final Set<String> SCENARIOS =
+            Set.of(System.getProperty("benchmark.scenarios", "cold,hot,zipfian,brownout").split(","));
+
+    @FunctionalInterface
+    private interface Prelude {
+
+        void run(McpLoadClient client, StubSearchProviderServer provider) throws InterruptedException;
+    }
+
+    record ScenarioResult(String name, McpLoadClient.Report report, double hitRatio,
+                          long upstreamRequests, long upstreamErrors) {
+    }
+
+    @Test
+    void runScenarios() throws Exception {
+        ZipfianQueries zipfian = new ZipfianQueries(DISTINCT_QUERIES, ZIPF_EXPONENT);
+        List<ScenarioResult> results = new ArrayList<>();
+
+        if (SCENARIOS.contains("cold")) {
+            results.add(run("cold", (client, provider) -> { },
+                    (session, call) -> "cold query " + session + " " + call));
+        }
+        if (SCENARIOS.contains("hot")) {
+            results.add(run("hot", (client, provider) -> { },
+                    (session, call) -> "hot query"));
+        }
+        if (SCENARIOS.contains("zipfian")) {
+            results.add(run("zipfian", (client, provider) -> { },
+                    (session, call) -> zipfian.next()));
+        }
+        if (SCENARIOS.contains("brownout")) {
+            results.add(run("brownout", (client, provider) -> {
+                client.run(SESSIONS, CALLS_PER_SESSION, "web_search", (session, call) -> zipfian.next());
+                provider.setBehaviour(Route.BRAVE, BROWNOUT_LATENCY, BROWNOUT_ERROR_RATE);
+            }, (session, call) -> zipfian.next()));
+        }
+
+        System.out.printf("%nLoad scenarios: %d sessions x %d calls, %d distinct Zipfian queries (s=%.2f)%n",
+                SESSIONS, CALLS_PER_SESSION, DISTINCT_QUERIES, ZIPF_EXPONENT);
+        System.out.printf("%-10s %7s %7s %9s %9s %9s %9s %9s %7s %9s %9s%n", "scenario", "calls", "errors",
+                "calls/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)", "hit%", "upstream", "upErrors");
+        for (ScenarioResult result : results) {
+            McpLoadClient.Report report = result.report();
+            System.out.printf("%-10s %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %7.1f %9d %9d%n", result.name(),
+                    report.calls(), report.errors(), report.throughput(), report.p50Millis(),
+                    report.p95Millis(), report.p99Millis(), report.maxMillis(), result.hitRatio() * 100,
+                    result.upstreamRequests(), result.upstreamErrors());
+        }
+
+        assertThat(results).allSatisfy(result -> assertThat(result.report().calls()).isPositive());
+    }
+
+    private ScenarioResult run(String name, Prelude prelude, McpLoadClient.QuerySource queries)
+            throws Exception {
+        try (StubSearchProviderServer provider = new StubSearchProviderServer(PROVIDER_LATENCY, 0);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(WebSearchMcpApplication.class)
+                     .profiles("local")
+                     .run(
+                             "--server.port=0",
+                             "--spring.threads.virtual.enabled="
+                                     + System.getProperty("benchmark.virtual-threads", "false"),
+                             "--websearch.provider=BRAVE",
+                             "--websearch.api-key=benchmark",
+                             "--websearch.rate-limit-per-minute=300",
+                             "--websearch.resilience.failover=SERPAPI",
+                             "--websearch.endpoints.brave=" + provider.url(Route.BRAVE),
+                             "--websearch.endpoints.serpapi=" + provider.url(Route.SERPAPI),
+                             "--websearch.endpoints.google-custom-search=" + provider.url(Route.GOOGLE),
+                             "--logging.level.com.example.websearchmcp=WARN",
+                             "--logging.level.org.springframework.ai.mcp=WARN")) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            McpLoadClient client = new McpLoadClient("http://127.0.0.1:" + port);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            // Warm up JIT and connection pools with queries no scenario uses
+            client.run(50, "web_search", i -> name + " warmup " + i);
+            prelude.run(client, provider);
+
+            double[] lookupsBefore = cacheLookups(meterRegistry);
+            long requestsBefore = provider.requestCount();
+            long errorsBefore = upstreamErrors(provider);
+            McpLoadClient.Report report = client.run(SESSIONS, CALLS_PER_SESSION, "web_search", queries);
+            double[] lookups = cacheLookups(meterRegistry);
+
+            double hits = lookups[0] - lookupsBefore[0];
+            double total = lookups[1] - lookupsBefore[1];
+            return new ScenarioResult(name, report, total == 0 ? 0 : hits / total,
+                    provider.requestCount() - requestsBefore, upstreamErrors(provider) - errorsBefore);
+        }
+    }
+
+    /**
+     * {@code web_search} lookups served from the cache, fresh or stale, and all lookups.
+     */
+    private static double[] cacheLookups(MeterRegistry meterRegistry) {
+        double hits = 0;
+        double total = 0;
+        for (Counter counter : meterRegistry.find("websearch.cache.requests").tag("tool", "web_search").counters()) {
+            String result = counter.getId().getTag("result");
+            if ("hit".equals(result) || "stale".equals(result)) {
+                hits += counter.count();
+            }
+            total += counter.count();
+        }
+        return new double[] {hits, total};
+    }
+
+    private static long upstreamErrors(StubSearchProviderServer provider) {
+        return Arrays.stream(Route.values()).mapToLong(provider::errorCount).sum();
+    }
+
+    /**
+     * Queries {@code "zipf query <rank>"} with rank {@code k} drawn with probability
+     * proportional to {@code 1 / k^s}.
+     */
+    static final class ZipfianQueries {
+
+        private final double[] cumulative;
+
+        ZipfianQueries(int distinct, double exponent) {
+            cumulative = new double[distinct];
+            double sum = 0;
+            for (int rank = 1; rank <= distinct; rank++) {
+                sum += 1 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < distinct; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        String next() {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+            int rank = Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1) + 1;
+            return "zipf query " + rank;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.websearchmcp.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Opens many concurrent MCP sessions against the Streamable HTTP endpoint and times the
+ * {@code tools/call} requests each one makes.
+ */
+class McpLoadClient {
+
+    private static final String ACCEPT = "application/json, text/event-stream";
+
+    private final URI endpoint;
+    private final HttpClient httpClient;
+
+    McpLoadClient(String baseUrl) {
+        this.endpoint = URI.create(baseUrl + "/mcp");
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Source of the query a session sends on each of its calls.
+     */
+    @FunctionalInterface
+    interface QuerySource {
+
+        String query(int session, int call);
+    }
+
+    /**
+     * Runs {@code sessions} sessions at once, each calling {@code tool} with the query
+     * produced for its index.
+     */
+    Report run(int sessions, String tool, IntFunction<String> queryForSession) throws InterruptedException {
+        return run(sessions, 1, tool, (session, call) -> queryForSession.apply(session));
+    }
+
+    /**
+     * Runs {@code sessions} sessions at once, each calling {@code tool} {@code callsPerSession}
+     * times in sequence. Only the tool calls are timed, not session setup.
+     */
+    Report run(int sessions, int callsPerSession, String tool, QuerySource queries) throws InterruptedException {
+        int calls = sessions * callsPerSession;
+        List<Long> latenciesNanos = Collections.synchronizedList(new ArrayList<>(calls));
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(sessions);
+
+        long began;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                int session = i;
+                executor.execute(() -> {
+                    int completed = 0;
+                    try {
+                        // Distinct client addresses keep the per-client rate limiter out of the measurement
+                        String clientAddress = "10.%d.%d.%d".formatted(session >> 16 & 255, session >> 8 & 255, session & 255);
+                        String sessionId = initialize(clientAddress);
+                        start.await();
+                        for (int call = 0; call < callsPerSession; call++) {
+                            long t0 = System.nanoTime();
+                            boolean ok = callTool(clientAddress, sessionId, tool, queries.query(session, call));
+                            latenciesNanos.add(System.nanoTime() - t0);
+                            completed++;
+                            if (!ok) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.addAndGet(callsPerSession - completed);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+            done.await();
+        }
+        long wallNanos = System.nanoTime() - began;
+        return Report.of(calls, errors.get(), wallNanos, latenciesNanos);
+    }
+
+    private String initialize(String clientAddress) throws Exception {
+        String body = """
+                {"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2025-03-26",\
+                "capabilities":{},"clientInfo":{"name":"load-client","version":"1.0"}}}""";
+        HttpResponse<String> response = httpClient.send(request(clientAddress, null, body),
+                HttpResponse.BodyHandlers.ofString());
+        String sessionId = response.headers().firstValue("Mcp-Session-Id")
+                .orElseThrow(() -> new IllegalStateException("No session id, status " + response.statusCode()));
+
+        httpClient.send(request(clientAddress, sessionId, """
+                {"jsonrpc":"2.0","method":"notifications/initialized"}"""), HttpResponse.BodyHandlers.discarding());
+        return sessionId;
+    }
+
+    private boolean callTool(String clientAddress, String sessionId, String tool, String query) throws Exception {
+        String body = """
+                {"jsonrpc":"2.0","id":2,"method":"tools/call","params":{"name":"%s","arguments":{"query":"%s"}}}"""
+                .formatted(tool, query);
+        HttpResponse<String> response = httpClient.send(request(clientAddress, sessionId, body),
+                HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 && response.body().contains("\"result\"")
+                && !response.body().contains("Error performing search");
+    }
+
+    private HttpRequest request(String clientAddress, String sessionId, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .header("Accept", ACCEPT)
+                .header("X-Forwarded-For", clientAddress)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (sessionId != null) {
+            builder.header("Mcp-Session-Id", sessionId);
+        }
+        return builder.build();
+    }
+
+    record Report(int calls, int errors, double wallSeconds, double throughput,
+                  double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+
+        static Report of(int calls, int errors, long wallNanos, List<Long> latenciesNanos) {
+            List<Long> sorted = new ArrayList<>(latenciesNanos);
+            Collections.sort(sorted);
+            double wallSeconds = wallNanos / 1e9;
+            return new Report(calls, errors, wallSeconds, calls / wallSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0));
+        }
+
+        private static double percentile(List<Long> sorted, double p) {
+            if (sorted.isEmpty()) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * sorted.size()) - 1;
+            return sorted.get(Math.max(0, index)) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.websearchmcp.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Brave, SerpAPI and Google Custom Search APIs that replays the
+ * recorded fixture responses from {@code /fixtures}. Each provider's latency is drawn from a
+ * {@link LatencyDistribution}, and a share of its requests can fail with 503 after that
+ * latency. Both can be changed while a load test runs, e.g. to brown out one provider.
+ */
+class StubSearchProviderServer implements AutoCloseable {
+
+    enum Route {
+        BRAVE("/res/v1/web/search", "brave-web-search.json"),
+        SERPAPI("/search", "serpapi-google-search.json"),
+        GOOGLE("/customsearch/v1", "google-custom-search.json");
+
+        final String path;
+        final String fixture;
+
+        Route(String path, String fixture) {
+            this.path = path;
+            this.fixture = fixture;
+        }
+    }
+
+    /**
+     * Response delay of a stub provider.
+     */
+    @FunctionalInterface
+    interface LatencyDistribution {
+
+        long nextMillis(ThreadLocalRandom random);
+
+        static LatencyDistribution fixed(Duration latency) {
+            long millis = latency.toMillis();
+            return random -> millis;
+        }
+
+        static LatencyDistribution uniform(Duration min, Duration max) {
+            long low = min.toMillis();
+            long high = max.toMillis();
+            return random -> random.nextLong(low, high + 1);
+        }
+
+        /**
+         * Log-normal delays with the given median and 99th percentile, the long-tailed shape
+         * real search APIs show.
+         */
+        static LatencyDistribution logNormal(Duration median, Duration p99) {
+            double mu = Math.log(median.toMillis());
+            // z-score of the 99th percentile of the standard normal distribution
+            double sigma = (Math.log(p99.toMillis()) - mu) / 2.3263;
+            return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        }
+    }
+
+    private record Behaviour(LatencyDistribution latency, double errorRate) {
+    }
+
+    private static final byte[] ERROR_BODY =
+            "{\"error\":\"stub provider unavailable\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final Map<Route, byte[]> bodies = new EnumMap<>(Route.class);
+    private final Map<Route, AtomicLong> requests = new EnumMap<>(Route.class);
+    private final Map<Route, AtomicLong> errors = new EnumMap<>(Route.class);
+    private final Map<Route, Behaviour> behaviours = new ConcurrentHashMap<>();
+
+    StubSearchProviderServer(LatencyDistribution latency, double errorRate) throws IOException {
+        for (Route route : Route.values()) {
+            bodies.put(route, fixture(route.fixture));
+            requests.put(route, new AtomicLong());
+            errors.put(route, new AtomicLong());
+            behaviours.put(route, new Behaviour(latency, errorRate));
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        for (Route route : Route.values()) {
+            server.createContext(route.path, exchange -> handle(route, exchange));
+        }
+        server.start();
+    }
+
+    String url(Route route) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + route.path;
+    }
+
+    String braveUrl() {
+        return url(Route.BRAVE);
+    }
+
+    /**
+     * Changes how {@code route} responds from its next request on.
+     */
+    void setBehaviour(Route route, LatencyDistribution latency, double errorRate) {
+        behaviours.put(route, new Behaviour(latency, errorRate));
+    }
+
+    long requestCount(Route route) {
+        return requests.get(route).get();
+    }
+
+    long requestCount() {
+        return requests.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    long errorCount(Route route) {
+        return errors.get(route).get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(Route route, HttpExchange exchange) throws IOException {
+        requests.get(route).incrementAndGet();
+        Behaviour behaviour = behaviours.get(route);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(Math.max(0, behaviour.latency().nextMillis(random)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        boolean fail = random.nextDouble() < behaviour.errorRate();
+        byte[] body = fail ? ERROR_BODY : bodies.get(route);
+        if (fail) {
+            errors.get(route).incrementAndGet();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] fixture(String name) {
+        try (InputStream in = StubSearchProviderServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.websearchmcp.benchmark;
+
+import com.example.websearchmcp.WebSearchMcpApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform-thread and virtual-thread request handling with 500+ concurrent MCP
+ * sessions against a stub provider with fixed latency. Each session searches a distinct
+ * query so every call goes upstream. Opt-in:
+ *
+ * <pre>./mvnw test -Dtest=ThreadingModeBenchmark -Dbenchmark=true -Dbenchmark.sessions=1000</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadingModeBenchmark {
+
+    private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 500);
+    private static final Duration PROVIDER_LATENCY =
+            Duration.ofMillis(Long.getLong("benchmark.provider-latency-ms", 250));
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        try (StubSearchProviderServer provider = new StubSearchProviderServer(
+                StubSearchProviderServer.LatencyDistribution.fixed(PROVIDER_LATENCY), 0)) {
+            McpLoadClient.Report platform = run(provider, false, "platform");
+            McpLoadClient.Report virtual = run(provider, true, "virtual");
+
+            System.out.printf("%nThreading mode comparison: %d sessions, provider latency %d ms%n",
+                    SESSIONS, PROVIDER_LATENCY.toMillis());
+            System.out.printf("%-10s %8s %8s %10s %10s %10s %10s %10s%n",
+                    "mode", "errors", "wall(s)", "calls/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+            print("platform", platform);
+            print("virtual", virtual);
+
+            assertThat(virtual.errors()).isZero();
+        }
+    }
+
+    private McpLoadClient.Report run(StubSearchProviderServer provider, boolean virtualThreads, String label)
+            throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WebSearchMcpApplication.class)
+                .profiles("local")
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--websearch.provider=BRAVE",
+                        "--websearch.api-key=benchmark",
+                        "--websearch.endpoints.brave=" + provider.braveUrl(),
+                        "--logging.level.com.example.websearchmcp=WARN",
+                        "--logging.level.org.springframework.ai.mcp=WARN")) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            McpLoadClient client = new McpLoadClient("http://127.0.0.1:" + port);
+
+            // Warm up JIT and connection pools with a small run first
+            client.run(50, "web_search", i -> label + "-warmup-" + i);
+            return client.run(SESSIONS, "web_search", i -> label + "-query-" + i);
+        }
+    }
+
+    private static void print(String mode, McpLoadClient.Report report) {
+        System.out.printf("%-10s %8d %8.2f %10.1f %10.1f %10.1f %10.1f %10.1f%n", mode, report.errors(),
+                report.wallSeconds(), report.throughput(), report.p50Millis(), report.p95Millis(),
+                report.p99Millis(), report.maxMillis());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.websearchmcp.config;
+
+import com.example.websearchmcp.config.WebSearchProperties.Endpoints;
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.config.WebSearchProperties.ProviderHttp;
+import com.example.websearchmcp.config.WebSearchProperties.Resilience;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Startup warm-up through the provider clients {@link HttpClientConfig} builds, against a
+ * local server standing in for Brave and an unreachable SerpAPI.
+ */
+class ProviderConnectionWarmupTest {
+
+    private final HttpClientConfig config = new HttpClientConfig();
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private final List<ConnectionProvider> pools = new ArrayList<>();
+    private HttpServer server;
+    private String unreachableUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String auth = exchange.getRequestHeaders().getFirst("X-Subscription-Token");
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()
+                    + (auth == null ? "" : " authenticated"));
+            exchange.sendResponseHeaders(401, -1);
+            exchange.close();
+        });
+        server.start();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unreachableUrl = "http://127.0.0.1:" + socket.getLocalPort() + "/search";
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(ConnectionProvider::dispose);
+        server.stop(0);
+    }
+
+    @Test
+    void opensConnectionsToConfiguredProvidersWithoutAuthenticating() {
+        String braveUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/res/v1/web/search";
+        WebSearchProperties properties = properties(braveUrl, 2);
+
+        warmup(properties).run(new DefaultApplicationArguments());
+
+        // SerpAPI is unreachable and Google isn't configured; neither stops startup
+        assertThat(requests).containsExactly("HEAD /res/v1/web/search", "HEAD /res/v1/web/search");
+    }
+
+    @Test
+    void zeroConnectionsSkipsWarmup() {
+        String braveUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/res/v1/web/search";
+
+        warmup(properties(braveUrl, 0)).run(new DefaultApplicationArguments());
+
+        assertThat(requests).isEmpty();
+    }
+
+    private ProviderConnectionWarmup warmup(WebSearchProperties properties) {
+        ConnectionProvider brave = pool(config.braveConnectionProvider(properties));
+        ConnectionProvider serpApi = pool(config.serpApiConnectionProvider(properties));
+        ConnectionProvider google = pool(config.googleCustomSearchConnectionProvider(properties));
+        return config.providerConnectionWarmup(
+                config.braveWebClient(WebClient.builder(), properties, brave),
+                config.serpApiWebClient(WebClient.builder(), properties, serpApi),
+                config.googleCustomSearchWebClient(WebClient.builder(), properties, google),
+                properties);
+    }
+
+    private ConnectionProvider pool(ConnectionProvider pool) {
+        pools.add(pool);
+        return pool;
+    }
+
+    private WebSearchProperties properties(String braveUrl, int warmUpConnections) {
+        Resilience resilience = new Resilience(List.of(Provider.SERPAPI), 2000, 4, 2, 50, 5000, 80, 30, 1);
+        ProviderHttp providerHttp = new ProviderHttp(500, 1000, 0, 0, 0, 0, 0, 0, true, true,
+                warmUpConnections, null);
+        return new WebSearchProperties("key", Provider.BRAVE, 10, 60, 300, 5, null, null,
+                new Endpoints(braveUrl, unreachableUrl, null), null, null, resilience, null, null, null, null,
+                null, null, providerHttp, null);
+    }
+}
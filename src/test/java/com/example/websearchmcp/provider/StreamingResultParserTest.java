@@ -0,0 +1,108 @@
+package com.example.websearchmcp.provider;
+
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingResultParserTest {
+
+    private final StreamingResultParser brave = new StreamingResultParser(
+            "brave", "web.results", "title", "url", "description", "display_url");
+    private final StreamingResultParser serpApi = new StreamingResultParser(
+            "serpapi", "organic_results", "title", "link", "snippet", "displayed_link");
+    private final StreamingResultParser google = new StreamingResultParser(
+            "google", "items", "title", "link", "snippet", "displayLink");
+
+    @Test
+    void parse_providerFixtures_matchTreeModelExtraction() throws IOException {
+        assertMatchesTreeModel(brave, "brave-web-search.json", "/web/results", "brave",
+                "title", "url", "description", "display_url");
+        assertMatchesTreeModel(serpApi, "serpapi-google-search.json", "/organic_results", "serpapi",
+                "title", "link", "snippet", "displayed_link");
+        assertMatchesTreeModel(google, "google-custom-search.json", "/items", "google",
+                "title", "link", "snippet", "displayLink");
+    }
+
+    @Test
+    void parse_missingResults_returnsEmpty() {
+        assertThat(brave.parse("q", bytes("{\"web\":{\"type\":\"search\"}}")).results()).isEmpty();
+        assertThat(brave.parse("q", bytes("{\"web\":[]}")).results()).isEmpty();
+        assertThat(brave.parse("q", bytes("{\"web\":{\"results\":{}}}")).results()).isEmpty();
+        assertThat(brave.parse("q", bytes("[]")).results()).isEmpty();
+    }
+
+    @Test
+    void parse_unexpectedValueTypes_fallBackToEmptyStrings() {
+        SearchResult result = brave.parse("q", bytes("""
+                {"web":{"results":[
+                  "not an object",
+                  {"title":null,"url":{"nested":"x"},"description":42,"display_url":["a"],"extra":{"deep":[1,2]}},
+                  {"title":"last"}
+                ]}}"""));
+
+        assertThat(result.results()).containsExactly(
+                new SearchResultItem("", "", "42", "", "brave"),
+                new SearchResultItem("last", "", "", "", "brave"));
+    }
+
+    @Test
+    void parse_malformedBody_throwsDecodingException() {
+        assertThatThrownBy(() -> brave.parse("q", bytes("{\"web\":{\"results\":[{\"title\":")))
+                .isInstanceOf(DecodingException.class)
+                .hasMessageContaining("brave");
+    }
+
+    @Test
+    void parse_dataBuffer_releasesBuffer() {
+        NettyDataBufferFactory factory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        NettyDataBuffer buffer = factory.wrap(PooledByteBufAllocator.DEFAULT.buffer()
+                .writeBytes(bytes("{\"items\":[{\"title\":\"t\",\"link\":\"https://example.com\"}]}")));
+
+        SearchResult result = google.parse("q", buffer);
+
+        assertThat(result.results()).extracting(SearchResultItem::url).containsExactly("https://example.com");
+        assertThat(buffer.getNativeBuffer().refCnt()).isZero();
+    }
+
+    private static void assertMatchesTreeModel(StreamingResultParser parser, String fixture, String pointer,
+                                               String source, String title, String url, String description,
+                                               String displayUrl) throws IOException {
+        byte[] body = fixture(fixture);
+
+        List<SearchResultItem> expected = new ArrayList<>();
+        for (JsonNode node : new ObjectMapper().readTree(body).at(pointer)) {
+            expected.add(new SearchResultItem(node.path(title).asText(""), node.path(url).asText(""),
+                    node.path(description).asText(""), node.path(displayUrl).asText(""), source));
+        }
+
+        SearchResult result = parser.parse("java virtual threads", body);
+        assertThat(expected).isNotEmpty();
+        assertThat(result.results()).containsExactlyElementsOf(expected);
+        assertThat(result.totalResults()).isEqualTo(expected.size());
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = StreamingResultParserTest.class.getResourceAsStream("/fixtures/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
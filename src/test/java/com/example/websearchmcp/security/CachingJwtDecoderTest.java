@@ -0,0 +1,91 @@
+package com.example.websearchmcp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final Clock clock = mock(Clock.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachingJwtDecoder decoder =
+            new CachingJwtDecoder(delegate, 100, Duration.ofSeconds(5), clock, meterRegistry);
+
+    @Test
+    void replayedToken_isVerifiedOnce() {
+        when(clock.instant()).thenReturn(NOW);
+        Jwt jwt = jwt("token-a", NOW.plusSeconds(600));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token-a");
+        assertThat(meterRegistry.counter("websearch.jwt.cache", "result", "hit").count()).isEqualTo(2);
+    }
+
+    @Test
+    void cachedToken_isVerifiedAgainOnceCloseToExpiry() {
+        when(clock.instant()).thenReturn(NOW);
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.plusSeconds(60)));
+        decoder.decode("token-a");
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(56));
+        decoder.decode("token-a");
+
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    @Test
+    void rejectedAndNonExpiringTokens_areNotCached() {
+        when(clock.instant()).thenReturn(NOW);
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("signature"));
+        when(delegate.decode("forever")).thenReturn(jwt("forever", null));
+
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        decoder.decode("forever");
+        decoder.decode("forever");
+
+        verify(delegate, times(2)).decode("bad");
+        verify(delegate, times(2)).decode("forever");
+    }
+
+    @Test
+    void invalidateAll_forcesVerificationAgain() {
+        when(clock.instant()).thenReturn(NOW);
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.plusSeconds(600)));
+        decoder.decode("token-a");
+
+        decoder.invalidateAll();
+        decoder.decode("token-a");
+
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("agent")
+                .issuedAt(NOW)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
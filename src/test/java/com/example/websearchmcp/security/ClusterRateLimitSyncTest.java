@@ -0,0 +1,87 @@
+package com.example.websearchmcp.security;
+
+import com.example.websearchmcp.service.InMemorySharedStore;
+import com.example.websearchmcp.service.SharedStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterRateLimitSyncTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final InMemorySharedStore store = new InMemorySharedStore();
+
+    @Test
+    void requestsAdmittedByOneInstance_countAgainstTheOtherAfterSync() {
+        Instance a = new Instance(store);
+        Instance b = new Instance(store);
+        assertThat(b.send(1)).isEqualTo(1);
+
+        assertThat(a.send(9)).isEqualTo(9);
+        a.sync.sync();
+        b.sync.sync();
+
+        // 10 of the client's 10 per minute are used cluster-wide
+        assertThat(b.send(1)).isZero();
+        // and B's own request reaches A on A's next sync
+        assertThat(a.send(1)).isEqualTo(1);
+        a.sync.sync();
+        assertThat(a.send(1)).isZero();
+    }
+
+    @Test
+    void countsAreOnlyChargedOnce() {
+        Instance a = new Instance(store);
+        Instance b = new Instance(store);
+        b.send(1);
+        a.send(4);
+        a.sync.sync();
+        b.sync.sync();
+        b.sync.sync();
+
+        // 5 used cluster-wide, however often B syncs
+        assertThat(b.send(10)).isEqualTo(5);
+    }
+
+    @Test
+    void storeUnavailable_instancesKeepLimitingLocally() {
+        SharedStore down = new InMemorySharedStore() {
+            @Override
+            public Map<String, Long> incrementAll(Map<String, Long> deltas, Duration ttl) {
+                throw new IllegalStateException("connection refused");
+            }
+        };
+        Instance a = new Instance(down);
+        a.send(3);
+
+        a.sync.sync();
+
+        assertThat(a.send(10)).isEqualTo(7);
+    }
+
+    private final class Instance {
+
+        final GcraRateLimiter limiter = new GcraRateLimiter(1000, nanos::get);
+        final ClusterRateLimitSync sync;
+
+        Instance(SharedStore store) {
+            sync = new ClusterRateLimitSync(limiter, store, 1000, Clock.systemUTC());
+        }
+
+        int send(int requests) {
+            int admitted = 0;
+            for (int i = 0; i < requests; i++) {
+                if (GcraRateLimiter.admitted(limiter.tryAcquire("client", 10))) {
+                    sync.recordAdmitted("client", 10);
+                    admitted++;
+                }
+            }
+            return admitted;
+        }
+    }
+}
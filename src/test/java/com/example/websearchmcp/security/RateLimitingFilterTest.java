@@ -0,0 +1,104 @@
+package com.example.websearchmcp.security;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitingFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitingFilter filter = new RateLimitingFilter(
+            new WebSearchProperties("key", null, 10, 60, 300, 5, null, null, null, null, null, null, null, null, null, null, null, null, null, null),
+            nanos::get, null, meterRegistry);
+
+    @Test
+    void burstUpToTheLimit_thenRejectedWithAccurateRetryAfter() throws Exception {
+        for (int i = 0; i < 60; i++) {
+            assertThat(send("10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        nanos.addAndGet(Duration.ofMillis(200).toNanos());
+
+        MockHttpServletResponse rejected = send("10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        // One request per second is restored; 200ms of that second has already passed
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(rejected.getHeader("RateLimit-Reset")).isEqualTo("60");
+        assertThat(send("10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("websearch.ratelimit.requests", "outcome", "admitted").count()).isEqualTo(61);
+        assertThat(meterRegistry.counter("websearch.ratelimit.requests", "outcome", "rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void allowanceIsRestoredGradually_notAtAWindowBoundary() throws Exception {
+        for (int i = 0; i < 60; i++) {
+            send("10.0.0.1");
+        }
+
+        nanos.addAndGet(Duration.ofSeconds(3).toNanos());
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(send("10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void admittedResponse_reportsRemainingAllowance() throws Exception {
+        send("10.0.0.1");
+
+        MockHttpServletResponse response = send("10.0.0.1");
+
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("60");
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("58");
+        assertThat(response.getHeader("RateLimit-Reset")).isEqualTo("2");
+    }
+
+    @Test
+    void limitClaimInJwt_overridesDefault() throws Exception {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none")
+                .subject("batch-client").claim("rate_limit_per_minute", 2).build();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mcp");
+        request.setUserPrincipal(new JwtAuthenticationToken(jwt));
+
+        assertThat(send(request).getHeader("RateLimit-Limit")).isEqualTo("2");
+        assertThat(send(request).getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = send(request);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("30");
+    }
+
+    @Test
+    void nonMcpPaths_areNotLimited() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+
+        assertThat(response.getHeader("RateLimit-Limit")).isNull();
+    }
+
+    private MockHttpServletResponse send(String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mcp");
+        request.addHeader("X-Forwarded-For", forwardedFor + ", 172.16.0.1");
+        return send(request);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
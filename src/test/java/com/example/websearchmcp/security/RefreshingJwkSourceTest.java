@@ -0,0 +1,112 @@
+package com.example.websearchmcp.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshingJwkSourceTest {
+
+    private static RSAKey first;
+    private static RSAKey second;
+
+    private final AtomicReference<JWKSet> published = new AtomicReference<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger rotations = new AtomicInteger();
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        first = new RSAKeyGenerator(2048).keyID("first").algorithm(JWSAlgorithm.RS256).generate();
+        second = new RSAKeyGenerator(2048).keyID("second").algorithm(JWSAlgorithm.RS256).generate();
+    }
+
+    @Test
+    void knownKey_isServedWithoutFetchingAgain() throws Exception {
+        published.set(new JWKSet(first.toPublicJWK()));
+        RefreshingJwkSource source = source(Duration.ZERO);
+        source.refresh();
+
+        assertThat(source.get(selector("first"), null)).hasSize(1);
+        assertThat(source.get(selector("first"), null)).hasSize(1);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void unknownKey_refetchesTheSet() throws Exception {
+        published.set(new JWKSet(first.toPublicJWK()));
+        RefreshingJwkSource source = source(Duration.ZERO);
+        source.refresh();
+        published.set(new JWKSet(List.of(first.toPublicJWK(), second.toPublicJWK())));
+
+        assertThat(source.get(selector("second"), null)).hasSize(1);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void unknownKey_refetchesAtMostOncePerInterval() throws Exception {
+        published.set(new JWKSet(first.toPublicJWK()));
+        RefreshingJwkSource source = source(Duration.ofMinutes(1));
+        source.refresh();
+
+        assertThat(source.get(selector("unknown"), null)).isEmpty();
+        assertThat(source.get(selector("unknown"), null)).isEmpty();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void rotationListener_runsOnlyWhenAKeyIsWithdrawn() throws Exception {
+        published.set(new JWKSet(first.toPublicJWK()));
+        RefreshingJwkSource source = source(Duration.ZERO);
+        source.onRotation(rotations::incrementAndGet);
+        source.refresh();
+
+        published.set(new JWKSet(List.of(first.toPublicJWK(), second.toPublicJWK())));
+        source.refresh();
+        assertThat(rotations).hasValue(0);
+
+        published.set(new JWKSet(second.toPublicJWK()));
+        source.refresh();
+        assertThat(rotations).hasValue(1);
+    }
+
+    @Test
+    void failedRefresh_keepsTheKeysItHad() throws Exception {
+        published.set(new JWKSet(first.toPublicJWK()));
+        RefreshingJwkSource source = source(Duration.ZERO);
+        source.refresh();
+
+        published.set(null);
+
+        assertThat(source.get(selector("first"), null)).hasSize(1);
+        assertThat(source.get(selector("second"), null)).isEmpty();
+    }
+
+    private RefreshingJwkSource source(Duration minRefreshInterval) {
+        return new RefreshingJwkSource(() -> {
+            loads.incrementAndGet();
+            JWKSet set = published.get();
+            if (set == null) {
+                throw new IllegalStateException("connection refused");
+            }
+            return set;
+        }, minRefreshInterval, Clock.systemUTC());
+    }
+
+    private static JWKSelector selector(String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactSearchResultTest {
+
+    private final SearchResult original = new SearchResult("grüße", 3, List.of(
+            new SearchResultItem("Straße — Übersicht", "https://example.de/straße", "Beschreibung ✓", "example.de", "brave"),
+            new SearchResultItem("日本語のタイトル", "https://example.jp", "", "example.jp", new String("brave")),
+            new SearchResultItem("Third", "https://example.com/3", "Third description", "example.com", "brave")
+    ));
+
+    @Test
+    void decode_roundTripsAllItems() {
+        SearchResult decoded = CompactSearchResult.encode(original).decode(Integer.MAX_VALUE);
+
+        assertThat(decoded).isEqualTo(original);
+    }
+
+    @Test
+    void decode_withLimit_returnsLeadingItems() {
+        SearchResult decoded = CompactSearchResult.encode(original).decode(2);
+
+        assertThat(decoded.totalResults()).isEqualTo(2);
+        assertThat(decoded.results()).containsExactlyElementsOf(original.results().subList(0, 2));
+    }
+
+    @Test
+    void encode_internsSources() {
+        SearchResult decoded = CompactSearchResult.encode(original).decode(3);
+
+        assertThat(decoded.results().get(1).source()).isSameAs(decoded.results().get(0).source());
+    }
+
+    @Test
+    void estimatedBytes_growsWithContent() {
+        CompactSearchResult small = CompactSearchResult.encode(new SearchResult("q", 1, original.results().subList(0, 1)));
+        CompactSearchResult large = CompactSearchResult.encode(original);
+
+        assertThat(large.estimatedBytes()).isGreaterThan(small.estimatedBytes());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.QueryNormalization;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultQueryCanonicalizerTest {
+
+    private final DefaultQueryCanonicalizer canonicalizer =
+            new DefaultQueryCanonicalizer(new QueryNormalization(true, true, true, true, false, null));
+
+    private final DefaultQueryCanonicalizer orderInsensitive =
+            new DefaultQueryCanonicalizer(new QueryNormalization(true, true, true, true, true, null));
+
+    @Test
+    void canonicalize_foldsCaseAndCollapsesWhitespace() {
+        assertThat(canonicalizer.canonicalize("Java 21 virtual threads"))
+                .isEqualTo(canonicalizer.canonicalize("  java 21\t virtual   threads "))
+                .isEqualTo("java 21 virtual threads");
+    }
+
+    @Test
+    void canonicalize_appliesNfkc() {
+        assertThat(canonicalizer.canonicalize("Ｊａｖａ ﬁle")).isEqualTo("java file");
+    }
+
+    @Test
+    void canonicalize_stripsSentencePunctuationButKeepsMeaningfulSymbols() {
+        assertThat(canonicalizer.canonicalize("What is C#? (and C++, node.js)"))
+                .isEqualTo("what is c# and c++ node.js");
+    }
+
+    @Test
+    void canonicalize_keepsOperatorsAndQuotedPhrases() {
+        assertThat(canonicalizer.canonicalize("Spring  \"Virtual  Threads!\" site:Docs.Spring.io -kotlin"))
+                .isEqualTo("spring \"virtual threads!\" site:docs.spring.io -kotlin");
+    }
+
+    @Test
+    void canonicalize_orderInsensitive_treatsReorderedQueriesAsEqual() {
+        assertThat(orderInsensitive.canonicalize("virtual threads java 21"))
+                .isEqualTo(orderInsensitive.canonicalize("Java 21 virtual threads"));
+    }
+
+    @Test
+    void canonicalize_orderInsensitive_keepsOrderWithBooleanOperators() {
+        assertThat(orderInsensitive.canonicalize("kotlin OR java coroutines"))
+                .isEqualTo("kotlin OR java coroutines");
+    }
+
+    @Test
+    void canonicalize_disabled_onlyTrims() {
+        DefaultQueryCanonicalizer disabled =
+                new DefaultQueryCanonicalizer(new QueryNormalization(false, true, true, true, true, null));
+
+        assertThat(disabled.canonicalize("  Java  Threads ")).isEqualTo("Java  Threads");
+    }
+}
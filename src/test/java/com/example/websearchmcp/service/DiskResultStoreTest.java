@@ -0,0 +1,129 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.example.websearchmcp.service.SearchResultCache.Entry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskResultStoreTest {
+
+    private static final long MAX_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+    private final List<DiskResultStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(DiskResultStore::close);
+    }
+
+    @Test
+    void read_afterReopen_returnsPersistedEntry() {
+        DiskResultStore store = open();
+        store.write("BRAVE:java", entry("java", 5), expiresIn(Duration.ofMinutes(5)));
+        store.close();
+
+        Entry entry = open().read("BRAVE:java");
+
+        assertThat(entry).isNotNull();
+        assertThat(entry.requestedCount()).isEqualTo(5);
+        assertThat(entry.fetchedAtMillis()).isEqualTo(clock.millis());
+        assertThat(entry.result().decode(10)).isEqualTo(result("java", 5));
+    }
+
+    @Test
+    void read_expiredEntry_returnsNull() {
+        DiskResultStore store = open();
+        store.write("BRAVE:old", entry("old", 3), clock.millis() - 1);
+
+        assertThat(store.read("BRAVE:old")).isNull();
+    }
+
+    @Test
+    void forEachHottest_afterReopen_ordersByReadCount() {
+        DiskResultStore store = open();
+        store.write("BRAVE:cold", entry("cold", 1), expiresIn(Duration.ofMinutes(5)));
+        store.write("BRAVE:hot", entry("hot", 1), expiresIn(Duration.ofMinutes(5)));
+        store.touch("BRAVE:hot");
+        store.touch("BRAVE:hot");
+        store.compact();
+        store.close();
+
+        List<String> keys = new ArrayList<>();
+        open().forEachHottest(1, (key, entry) -> keys.add(key));
+
+        assertThat(keys).containsExactly("BRAVE:hot");
+    }
+
+    @Test
+    void compact_dropsSupersededRecords() {
+        DiskResultStore store = open();
+        for (int i = 0; i < 10; i++) {
+            store.write("BRAVE:java", entry("java", 5), expiresIn(Duration.ofMinutes(5)));
+        }
+        long before = store.segmentBytes();
+
+        store.compact();
+
+        assertThat(store.segmentBytes()).isLessThan(before);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.read("BRAVE:java")).isNotNull();
+    }
+
+    @Test
+    void open_withTornTail_keepsCompleteRecords() throws IOException {
+        DiskResultStore store = open();
+        store.write("BRAVE:java", entry("java", 2), expiresIn(Duration.ofMinutes(5)));
+        store.close();
+        Files.write(directory.resolve("search-results.seg"), new byte[]{0, 0, 1, 0, 42},
+                StandardOpenOption.APPEND);
+
+        DiskResultStore reopened = open();
+
+        assertThat(reopened.read("BRAVE:java")).isNotNull();
+        reopened.write("BRAVE:kotlin", entry("kotlin", 2), expiresIn(Duration.ofMinutes(5)));
+        reopened.close();
+        assertThat(open().size()).isEqualTo(2);
+    }
+
+    private DiskResultStore open() {
+        DiskResultStore store = new DiskResultStore(directory, MAX_BYTES, Duration.ofHours(1), clock);
+        opened.add(store);
+        return store;
+    }
+
+    private long expiresIn(Duration duration) {
+        return clock.millis() + duration.toMillis();
+    }
+
+    private Entry entry(String query, int size) {
+        return new Entry(CompactSearchResult.encode(result(query, size)), size, false, clock.millis(), 0);
+    }
+
+    private static SearchResult result(String query, int size) {
+        List<SearchResultItem> items = IntStream.range(0, size)
+                .mapToObj(i -> new SearchResultItem("Title " + i, "https://example.com/" + i, "Description " + i,
+                        "example.com", "brave"))
+                .toList();
+        return new SearchResult(query, items.size(), items);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.websearchmcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HtmlTextExtractorTest {
+
+    @Test
+    void extractsReadableTextAndTitle_skippingScriptsStylesAndComments() throws IOException {
+        HtmlTextExtractor extractor = new HtmlTextExtractor(StandardCharsets.UTF_8, true, 10000);
+
+        extractor.feed(ByteBuffer.wrap(fixture("article.html")));
+
+        assertThat(extractor.title()).isEqualTo("Virtual Threads & Structured Concurrency");
+        assertThat(extractor.text()).isEqualTo("""
+                Home
+                Virtual threads in Java 21
+                Virtual threads are lightweight threads managed by the JVM.
+                They make blocking code cheap: 1 < 2 and café — done.""");
+    }
+
+    @Test
+    void multiByteCharactersSplitAcrossChunks_areDecodedIntact() {
+        byte[] body = "<p>café — naïve 日本語</p>".getBytes(StandardCharsets.UTF_8);
+        HtmlTextExtractor extractor = new HtmlTextExtractor(StandardCharsets.UTF_8, true, 10000);
+
+        for (byte b : body) {
+            extractor.feed(ByteBuffer.wrap(new byte[] {b}));
+        }
+
+        assertThat(extractor.text()).isEqualTo("café — naïve 日本語");
+    }
+
+    @Test
+    void textBeyondLimit_isDroppedAndReportedFull() throws IOException {
+        HtmlTextExtractor extractor = new HtmlTextExtractor(StandardCharsets.UTF_8, true, 100);
+
+        extractor.feed(ByteBuffer.wrap(fixture("long.html")));
+
+        assertThat(extractor.isFull()).isTrue();
+        assertThat(extractor.text()).hasSizeLessThanOrEqualTo(100).startsWith("Lorem ipsum");
+    }
+
+    @Test
+    void strayAngleBracketsAndUnknownReferences_areKeptAsWritten() {
+        HtmlTextExtractor extractor = new HtmlTextExtractor(StandardCharsets.UTF_8, true, 10000);
+
+        extractor.feed(ByteBuffer.wrap("a < b & c &bogus; d".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(extractor.text()).isEqualTo("a < b & c &bogus; d");
+    }
+
+    @Test
+    void plainText_keepsLineBreaksAndIgnoresMarkupCharacters() {
+        HtmlTextExtractor extractor = new HtmlTextExtractor(StandardCharsets.UTF_8, false, 10000);
+
+        extractor.feed(ByteBuffer.wrap("if a<b &amp;\n   then   c\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(extractor.text()).isEqualTo("if a<b &amp;\nthen c");
+    }
+
+    static byte[] fixture(String name) throws IOException {
+        try (InputStream in = HtmlTextExtractorTest.class.getResourceAsStream("/fixtures/pages/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+}
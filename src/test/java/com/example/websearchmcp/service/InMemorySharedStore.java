@@ -0,0 +1,70 @@
+package com.example.websearchmcp.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link SharedStore} for tests. Several server components (or simulated
+ * instances) sharing one of these behave as if they shared a Redis server.
+ */
+public class InMemorySharedStore implements SharedStore {
+
+    private final Map<String, Value> values = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemorySharedStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemorySharedStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Map<String, Long> incrementAll(Map<String, Long> deltas, Duration ttl) {
+        Map<String, Long> totals = new HashMap<>();
+        long now = clock.millis();
+        deltas.forEach((key, delta) -> {
+            Value updated = values.compute(key, (k, current) -> {
+                long base = current == null || current.expired(now) ? 0 : current.counter();
+                long expiresAt = current == null || current.expired(now) ? now + ttl.toMillis() : current.expiresAtMillis();
+                return new Value(null, base + delta, expiresAt);
+            });
+            totals.put(key, updated.counter());
+        });
+        return totals;
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.fromSupplier(() -> {
+            Value value = values.get(key);
+            if (value == null || value.expired(clock.millis())) {
+                return null;
+            }
+            return value.bytes();
+        });
+    }
+
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        values.put(key, new Value(value, 0, clock.millis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void close() {
+        values.clear();
+    }
+
+    private record Value(byte[] bytes, long counter, long expiresAtMillis) {
+
+        boolean expired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+}
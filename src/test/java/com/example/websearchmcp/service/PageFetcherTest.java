@@ -0,0 +1,215 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.HttpClientConfig;
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.config.WebSearchProperties.Fetch;
+import com.example.websearchmcp.model.FetchedPage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Page fetching against a local server serving fixture pages.
+ */
+class PageFetcherTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> conditionalRequests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final List<ConnectionProvider> pools = new CopyOnWriteArrayList<>();
+    private final DnsAddressResolverGroup resolver = new HttpClientConfig().pageFetchResolver();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/article", exchange -> {
+            requests.incrementAndGet();
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch != null) {
+                conditionalRequests.add(ifNoneMatch);
+            }
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            respond(exchange, "text/html; charset=utf-8", HtmlTextExtractorTest.fixture("article.html"));
+        });
+        server.createContext("/long", exchange ->
+                respond(exchange, "text/html", HtmlTextExtractorTest.fixture("long.html")));
+        server.createContext("/big", exchange ->
+                respond(exchange, "text/html", ("<p>" + "word ".repeat(20000) + "</p>").getBytes()));
+        server.createContext("/moved", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/article");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/image", exchange -> respond(exchange, "image/png", new byte[] {1, 2, 3}));
+        server.createContext("/slow", exchange -> {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            sleep(Duration.ofMillis(300));
+            inFlight.decrementAndGet();
+            respond(exchange, "text/plain", "slow page".getBytes());
+        });
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(ConnectionProvider::dispose);
+        resolver.close();
+        server.stop(0);
+    }
+
+    @Test
+    void fetchAll_returnsReadableTextInRequestedOrder_withPerPageErrors() {
+        PageFetcher fetcher = fetcher(new Fetch(5, 5, 2, 1024, 20000, 5000, 100, 300, true));
+
+        List<FetchedPage> pages = fetcher.fetchAll(List.of(url("/missing"), url("/article"), url("/image"))).block();
+
+        assertThat(pages).extracting(FetchedPage::url).containsExactly(url("/missing"), url("/article"), url("/image"));
+        assertThat(pages.get(0).error()).isEqualTo("HTTP 404");
+        assertThat(pages.get(1).title()).isEqualTo("Virtual Threads & Structured Concurrency");
+        assertThat(pages.get(1).text()).contains("Virtual threads are lightweight threads managed by the JVM.")
+                .doesNotContain("not text", "font-family", "Enable JavaScript");
+        assertThat(pages.get(1).truncated()).isFalse();
+        assertThat(pages.get(2).error()).startsWith("Unsupported content type image/png");
+    }
+
+    @Test
+    void cachedPage_isServedUntilStale_thenRevalidatedWithItsETag() {
+        PageFetcher fetcher = fetcher(new Fetch(5, 5, 2, 1024, 20000, 5000, 100, 300, true));
+        FetchedPage first = fetcher.fetch(url("/article")).block();
+
+        assertThat(fetcher.fetch(url("/article")).block()).isEqualTo(first);
+        assertThat(requests).hasValue(1);
+
+        clock.advance(Duration.ofSeconds(301));
+        assertThat(fetcher.fetch(url("/article")).block()).isEqualTo(first);
+        assertThat(requests).hasValue(2);
+        assertThat(conditionalRequests).containsExactly("\"v1\"");
+
+        // A 304 counts as fresh again
+        assertThat(fetcher.fetch(url("/article")).block()).isEqualTo(first);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void pagesOverTheTextOrSizeLimit_areTruncated() {
+        PageFetcher fetcher = fetcher(new Fetch(5, 5, 2, 16, 100, 5000, 100, 300, true));
+
+        FetchedPage longPage = fetcher.fetch(url("/long")).block();
+        assertThat(longPage.truncated()).isTrue();
+        assertThat(longPage.text()).hasSizeBetween(99, 100);
+
+        FetchedPage bigPage = fetcher(new Fetch(5, 5, 2, 16, 1000000, 5000, 100, 300, true)).fetch(url("/big")).block();
+        assertThat(bigPage.truncated()).isTrue();
+        assertThat(bigPage.text().length()).isLessThanOrEqualTo(16 * 1024);
+    }
+
+    @Test
+    void redirects_areFollowed() {
+        PageFetcher fetcher = fetcher(new Fetch(5, 5, 2, 1024, 20000, 5000, 100, 300, true));
+
+        FetchedPage page = fetcher.fetch(url("/moved")).block();
+
+        assertThat(page.url()).isEqualTo(url("/moved"));
+        assertThat(page.title()).isEqualTo("Virtual Threads & Structured Concurrency");
+    }
+
+    @Test
+    void slowPage_timesOut() {
+        PageFetcher fetcher = fetcher(new Fetch(5, 5, 2, 1024, 20000, 100, 100, 300, true));
+
+        assertThat(fetcher.fetch(url("/slow")).block().error()).isEqualTo("Timed out after 100ms");
+    }
+
+    @Test
+    void connectionsPerHost_areBoundedAcrossPages() {
+        PageFetcher fetcher = fetcher(new Fetch(5, 5, 2, 1024, 20000, 5000, 100, 300, true));
+
+        List<FetchedPage> pages = fetcher.fetchAll(List.of(
+                url("/slow?1"), url("/slow?2"), url("/slow?3"), url("/slow?4"), url("/slow?5"))).block();
+
+        assertThat(pages).extracting(FetchedPage::text).containsOnly("slow page");
+        assertThat(maxInFlight).hasValue(2);
+    }
+
+    @Test
+    void connectionsPerHost_furtherPagesWaitForAConnection() {
+        PageFetcher fetcher = fetcher(new Fetch(6, 6, 1, 1024, 20000, 5000, 100, 300, true));
+
+        List<FetchedPage> pages = fetcher.fetchAll(List.of(url("/slow?1"), url("/slow?2"), url("/slow?3"),
+                url("/slow?4"), url("/slow?5"), url("/slow?6"))).block();
+
+        assertThat(pages).extracting(FetchedPage::text).containsOnly("slow page");
+        assertThat(maxInFlight).hasValue(1);
+    }
+
+    @Test
+    void privateAddresses_areRefusedUnlessAllowed() {
+        PageFetcher fetcher = fetcher(new Fetch(5, 5, 2, 1024, 20000, 5000, 100, 300, false));
+
+        assertThat(fetcher.fetch(url("/article")).block().error()).contains("private address");
+        assertThat(fetcher.fetch("file:///etc/passwd").block().error()).isEqualTo("Only http and https URLs can be fetched");
+        assertThat(requests).hasValue(0);
+    }
+
+    private PageFetcher fetcher(Fetch fetch) {
+        WebSearchProperties properties = new WebSearchProperties("key", null, 10, 60, 300, 5,
+                null, null, null, null, null, null, null, null, null, null, fetch, null, null, null);
+        HttpClientConfig config = new HttpClientConfig();
+        ConnectionProvider pool = config.pageFetchConnectionProvider(properties);
+        pools.add(pool);
+        WebClient webClient = config.pageWebClient(WebClient.builder(), properties, pool, resolver);
+        return new PageFetcher(webClient, properties, clock);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException e) {
+            // The client stopped reading once it had enough
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
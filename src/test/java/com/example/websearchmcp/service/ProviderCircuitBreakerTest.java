@@ -0,0 +1,118 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Resilience;
+import com.example.websearchmcp.service.ProviderCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(50).toNanos();
+    private static final long SLOW = Duration.ofSeconds(6).toNanos();
+
+    private final MutableClock clock = new MutableClock();
+    // window 10, minimum 4 calls, opens at 50% failures or 80% slow calls, 30s open, 2 trial calls
+    private final ProviderCircuitBreaker breaker = new ProviderCircuitBreaker(
+            new Resilience(List.of(), 10000, 10, 4, 50, 5000, 80, 30, 2), clock);
+
+    @Test
+    void failureRateAboveThreshold_opensAndRejects() {
+        succeed(2);
+        fail(1);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        fail(1);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.isCallPermitted()).isFalse();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void belowMinimumCalls_staysClosed() {
+        fail(3);
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void oldSuccessesSlideOutOfTheWindow() {
+        succeed(10);
+        fail(4);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        // 5 of the last 10 calls failed, even though only 5 of 15 did overall
+        fail(1);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void slowCallRateAboveThreshold_opens() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onSuccess(SLOW);
+        }
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void afterOpenDuration_trialSuccessesClose() {
+        fail(4);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(breaker.isCallPermitted()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void trialFailure_reopens() {
+        fail(4);
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure(FAST);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void ignoredTrial_returnsPermit() {
+        fail(4);
+        clock.advance(Duration.ofSeconds(30));
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onSuccess(FAST);
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure(FAST);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.config.WebSearchProperties.Endpoints;
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.config.WebSearchProperties.Resilience;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.example.websearchmcp.provider.BraveSearchProvider;
+import com.example.websearchmcp.provider.SerpApiSearchProvider;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Circuit breaking and failover with the real provider clients talking to local stub servers.
+ */
+class ProviderFailoverTest {
+
+    private StubServer brave;
+    private StubServer serpApi;
+    private WebSearchService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        brave = new StubServer(503, "{\"error\":\"unavailable\"}");
+        serpApi = new StubServer(200, """
+                {"search_metadata":{"status":"Success"},
+                 "organic_results":[{"title":"From SerpAPI","link":"https://example.com","snippet":"s"}]}""");
+
+        // Window of 4 calls, opening at 50% failures once 2 calls are recorded
+        Resilience resilience = new Resilience(List.of(Provider.SERPAPI), 2000, 4, 2, 50, 5000, 80, 30, 1);
+        WebSearchProperties properties = new WebSearchProperties("key", Provider.BRAVE, 10, 60, 300, 5, null,
+                null, new Endpoints(brave.url(), serpApi.url(), null), null, null, resilience, null, null, null, null, null, null, null, null);
+        WebClient webClient = WebClient.create();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SearchResultCache cache = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), Clock.systemUTC(), null);
+        service = new WebSearchService(properties,
+                List.of(new BraveSearchProvider(webClient, properties, meterRegistry),
+                        new SerpApiSearchProvider(webClient, properties, meterRegistry)),
+                cache, String::strip, (SharedStore) null, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        brave.close();
+        serpApi.close();
+    }
+
+    @Test
+    void primaryFailing_failsOverAndStopsCallingItOnceCircuitOpens() {
+        for (int i = 0; i < 6; i++) {
+            SearchResult result = service.search("query " + i, 5);
+            assertThat(result.results()).extracting(SearchResultItem::source).containsExactly("serpapi");
+        }
+
+        assertThat(brave.requests()).isEqualTo(2);
+        assertThat(serpApi.requests()).isEqualTo(6);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        brave.respond(400, "{\"error\":\"bad request\"}");
+
+        for (int i = 0; i < 4; i++) {
+            service.search("query " + i, 5);
+        }
+
+        assertThat(brave.requests()).isEqualTo(4);
+    }
+
+    @Test
+    void everyProviderDown_failsFastOnceCircuitsOpen() {
+        serpApi.respond(503, "{}");
+        for (int i = 0; i < 2; i++) {
+            int query = i;
+            assertThatThrownBy(() -> service.search("query " + query, 5))
+                    .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+        }
+
+        assertThatThrownBy(() -> service.search("query after open", 5))
+                .isInstanceOf(ProviderUnavailableException.class);
+        assertThat(brave.requests()).isEqualTo(2);
+        assertThat(serpApi.requests()).isEqualTo(2);
+    }
+
+    private static final class StubServer implements AutoCloseable {
+
+        private final HttpServer server;
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int status;
+        private volatile byte[] body;
+
+        StubServer(int status, String body) throws IOException {
+            respond(status, body);
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        void respond(int status, String body) {
+            this.status = status;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/search";
+        }
+
+        int requests() {
+            return requests.get();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.websearchmcp.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Connect-time address checks for the page client, against a host that rebinds from a public
+ * address to the loopback address of a local server between two lookups.
+ */
+class PublicAddressResolverGroupTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void rebindingHost_passesFirstLookupButIsRefusedAtConnect() throws Exception {
+        PublicAddressResolverGroup group = new PublicAddressResolverGroup(new RebindingResolverGroup());
+        int port = server.getAddress().getPort();
+
+        // The lookup PageFetcher's pre-check would see
+        InetSocketAddress first = group.getResolver(ImmediateEventExecutor.INSTANCE)
+                .resolve(InetSocketAddress.createUnresolved("rebind.test", port)).get();
+        assertThat(first.getAddress().getHostAddress()).isEqualTo("93.184.216.34");
+
+        WebClient client = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().resolver(group)))
+                .build();
+        assertThatThrownBy(() -> client.get().uri("http://rebind.test:" + port + "/").retrieve()
+                .toBodilessEntity().block())
+                .hasMessageContaining("Refusing to fetch rebind.test: it resolves to a private address");
+        assertThat(requests).hasValue(0);
+    }
+
+    @Test
+    void literalPrivateAddress_isRefused() {
+        PublicAddressResolverGroup group = new PublicAddressResolverGroup(new RebindingResolverGroup());
+        AddressResolver<InetSocketAddress> resolver = group.getResolver(ImmediateEventExecutor.INSTANCE);
+
+        assertThat(resolver.resolve(new InetSocketAddress("169.254.169.254", 80)).cause())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Answers the first lookup of a name with a public address and every later one with 127.0.0.1.
+     */
+    private final class RebindingResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+        @Override
+        protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+            return new AbstractAddressResolver<>(executor, InetSocketAddress.class) {
+
+                @Override
+                protected boolean doIsResolved(InetSocketAddress address) {
+                    return !address.isUnresolved();
+                }
+
+                @Override
+                protected void doResolve(InetSocketAddress unresolved, Promise<InetSocketAddress> promise) {
+                    try {
+                        byte[] address = lookups.getAndIncrement() == 0
+                                ? new byte[] {93, (byte) 184, (byte) 216, 34}
+                                : new byte[] {127, 0, 0, 1};
+                        promise.setSuccess(new InetSocketAddress(
+                                InetAddress.getByAddress(unresolved.getHostString(), address), unresolved.getPort()));
+                    } catch (UnknownHostException e) {
+                        promise.setFailure(e);
+                    }
+                }
+
+                @Override
+                protected void doResolveAll(InetSocketAddress unresolved,
+                                            Promise<List<InetSocketAddress>> promise) {
+                    Promise<InetSocketAddress> one = executor().newPromise();
+                    doResolve(unresolved, one);
+                    promise.setSuccess(List.of(one.getNow()));
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.websearchmcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedisSharedStoreTest {
+
+    @Test
+    void unreachableServer_startsAndBehavesAsUnavailable() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        try (RedisSharedStore store = new RedisSharedStore("redis://127.0.0.1:" + port, "test:",
+                Duration.ofMillis(200))) {
+            assertThat(store.isConnected()).isFalse();
+            assertThat(store.get("cache:key").block()).isNull();
+            store.set("cache:key", new byte[] {1}, Duration.ofSeconds(1));
+            assertThatThrownBy(() -> store.incrementAll(Map.of("counter", 1L), Duration.ofSeconds(1)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("not connected");
+        }
+    }
+}
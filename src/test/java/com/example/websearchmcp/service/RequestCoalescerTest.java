@@ -0,0 +1,113 @@
+package com.example.websearchmcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private RequestCoalescer<String, String> coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new RequestCoalescer<>("test", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void execute_concurrentCallsForSameKey_shareOneLoad() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> coalescer.execute("key", () -> Mono.fromCallable(() -> {
+                    loads.incrementAndGet();
+                    loadStarted.countDown();
+                    await(release);
+                    return "value";
+                })).block()));
+            }
+
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            waitUntil(() -> coalescer.coalescedCount() == callers - 1);
+            release.countDown();
+
+            for (Future<String> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(coalescer.leaderCount()).isEqualTo(1);
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    @Test
+    void execute_afterCompletion_loadsAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        coalescer.execute("key", () -> Mono.fromCallable(() -> "v" + loads.incrementAndGet())).block();
+        String second = coalescer.execute("key", () -> Mono.fromCallable(() -> "v" + loads.incrementAndGet())).block();
+
+        assertThat(second).isEqualTo("v2");
+        assertThat(coalescer.coalescedCount()).isZero();
+    }
+
+    @Test
+    void execute_whenLoaderFails_propagatesAndClearsKey() {
+        assertThatThrownBy(() -> coalescer.execute("key",
+                () -> Mono.<String>error(new IllegalStateException("upstream down"))).block())
+                .isInstanceOf(IllegalStateException.class).hasMessage("upstream down");
+
+        assertThat(coalescer.inFlightCount()).isZero();
+        assertThat(coalescer.execute("key", () -> Mono.just("recovered")).block()).isEqualTo("recovered");
+    }
+
+    @Test
+    void execute_whenLeaderCancels_followersStillReceiveValue() {
+        Sinks.One<String> upstream = Sinks.one();
+
+        coalescer.execute("key", upstream::asMono).subscribe().dispose();
+        CompletableFuture<String> follower = coalescer.execute("key", () -> Mono.just("second load")).toFuture();
+        upstream.tryEmitValue("shared");
+
+        assertThat(follower.join()).isEqualTo("shared");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Deduplication;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultDeduplicatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void sameCanonicalUrl_keepsTheBestRankedCopy() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(new Deduplication(true, false, 0, null), meterRegistry);
+
+        List<SearchResultItem> kept = deduplicator.deduplicate(List.of(
+                item("First", "https://example.com/a"),
+                item("Copy", "http://www.example.com/a/?utm_source=feed"),
+                item("Other", "https://example.com/b"),
+                item("Untitled", ""),
+                item("Untitled", "")), 10);
+
+        assertThat(kept).extracting(SearchResultItem::title).containsExactly("First", "Other", "Untitled", "Untitled");
+        assertThat(meterRegistry.counter("websearch.results.duplicates").count()).isEqualTo(1);
+    }
+
+    @Test
+    void limit_countsDistinctResults() {
+        ResultDeduplicator deduplicator = new ResultDeduplicator(new Deduplication(true, false, 0, null), meterRegistry);
+
+        List<SearchResultItem> kept = deduplicator.deduplicate(List.of(
+                item("A", "https://example.com/a"),
+                item("A again", "https://example.com/a/"),
+                item("B", "https://example.com/b"),
+                item("C", "https://example.com/c")), 2);
+
+        assertThat(kept).extracting(SearchResultItem::title).containsExactly("A", "B");
+    }
+
+    @Test
+    void nearDuplicateTitles_areDroppedWhenEnabled() {
+        List<SearchResultItem> items = List.of(
+                item("Java 21 virtual threads explained with examples", "https://blog.example.com/vt"),
+                item("Java 21 virtual threads explained with examples | Mirror", "https://mirror.example.org/vt"),
+                item("Home", "https://a.example.com"),
+                item("Home", "https://b.example.com"));
+
+        List<SearchResultItem> exact = new ResultDeduplicator(new Deduplication(true, false, 0, null), meterRegistry)
+                .deduplicate(items, 10);
+        List<SearchResultItem> near = new ResultDeduplicator(new Deduplication(true, true, 0, null), meterRegistry)
+                .deduplicate(items, 10);
+
+        assertThat(exact).hasSize(4);
+        assertThat(near).extracting(SearchResultItem::url)
+                .containsExactly("https://blog.example.com/vt", "https://a.example.com", "https://b.example.com");
+    }
+
+    @Test
+    void simHash_ignoresCaseAndPunctuation_staysCloseForSmallEdits_andIsZeroForShortTitles() {
+        long hash = ResultDeduplicator.simHash("How to tune the G1 garbage collector");
+
+        assertThat(ResultDeduplicator.simHash("How to Tune the G1 Garbage-Collector!")).isEqualTo(hash);
+        assertThat(Long.bitCount(hash ^ ResultDeduplicator.simHash("How to tune the G1 garbage collector in 2024")))
+                .isLessThanOrEqualTo(10);
+        assertThat(ResultDeduplicator.simHash("Login page")).isZero();
+    }
+
+    private static SearchResultItem item(String title, String url) {
+        return new SearchResultItem(title, url, "", "", "brave");
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.example.websearchmcp.service.SearchResultCache.Freshness;
+import com.example.websearchmcp.service.SearchResultCache.Hit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.file.Path;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), clock, null);
+    }
+
+    @Test
+    void get_smallerCount_slicesLargerEntry() {
+        cache.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+
+        SearchResult sliced = cache.get(Provider.BRAVE, "java", 3).blockOptional().orElseThrow().result();
+
+        assertThat(sliced.totalResults()).isEqualTo(3);
+        assertThat(sliced.results()).extracting(SearchResultItem::title)
+                .containsExactly("Title 0", "Title 1", "Title 2");
+    }
+
+    @Test
+    void get_largerCount_misses() {
+        cache.put(Provider.BRAVE, "java", 3, result("java", 3), false);
+
+        assertThat(cache.get(Provider.BRAVE, "java", 10).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void get_largerCountWhenProviderWasExhausted_hits() {
+        cache.put(Provider.BRAVE, "rare query", 10, result("rare query", 4), true);
+
+        assertThat(cache.get(Provider.BRAVE, "rare query", 20).blockOptional())
+                .hasValueSatisfying(hit -> assertThat(hit.result().results()).hasSize(4));
+    }
+
+    @Test
+    void put_largerCount_replacesSmallerEntry() {
+        cache.put(Provider.BRAVE, "java", 3, result("java", 3), false);
+        cache.put(Provider.BRAVE, "java", 20, result("java", 20), false);
+
+        assertThat(cache.get(Provider.BRAVE, "java", 20).blockOptional()).isPresent();
+        assertThat(cache.get(Provider.BRAVE, "java", 3).blockOptional()).isPresent();
+    }
+
+    @Test
+    void put_smallerCount_keepsLargerEntry() {
+        cache.put(Provider.BRAVE, "java", 20, result("java", 20), false);
+        cache.put(Provider.BRAVE, "java", 3, result("java", 3), false);
+
+        assertThat(cache.get(Provider.BRAVE, "java", 20).blockOptional()).isPresent();
+    }
+
+    @Test
+    void put_smallerCount_replacesLargerEntryPastHardTtl() {
+        cache.put(Provider.BRAVE, "java", 20, result("java", 20), false);
+        clock.advance(Duration.ofSeconds(301));
+        cache.put(Provider.BRAVE, "java", 3, result("java", 3), false);
+
+        assertThat(cache.get(Provider.BRAVE, "java", 3).blockOptional())
+                .hasValueSatisfying(hit -> assertThat(hit.freshness()).isEqualTo(Freshness.FRESH));
+    }
+
+    @Test
+    void get_otherProvider_misses() {
+        cache.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+
+        assertThat(cache.get(Provider.SERPAPI, "java", 3).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void get_tracksFreshnessAgainstSoftAndHardTtl() {
+        cache.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+
+        assertThat(freshness("java")).isEqualTo(Freshness.FRESH);
+        clock.advance(Duration.ofSeconds(61));
+        assertThat(freshness("java")).isEqualTo(Freshness.STALE);
+        clock.advance(Duration.ofSeconds(240));
+        assertThat(freshness("java")).isEqualTo(Freshness.EXPIRED);
+        clock.advance(Duration.ofSeconds(120));
+        assertThat(cache.get(Provider.BRAVE, "java", 10).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void recordRefreshFailure_keepsOriginalFetchTime() {
+        cache.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+        clock.advance(Duration.ofSeconds(301));
+
+        cache.recordRefreshFailure(Provider.BRAVE, "java");
+
+        Hit hit = cache.get(Provider.BRAVE, "java", 10).blockOptional().orElseThrow();
+        assertThat(hit.freshness()).isEqualTo(Freshness.EXPIRED);
+        assertThat(hit.refreshFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void put_afterRefresh_isFreshAgain() {
+        cache.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+        clock.advance(Duration.ofSeconds(100));
+
+        cache.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+
+        assertThat(freshness("java")).isEqualTo(Freshness.FRESH);
+    }
+
+    @Test
+    void get_memoryMiss_fallsThroughToDisk(@TempDir Path directory) {
+        try (DiskResultStore disk = new DiskResultStore(directory, 1024 * 1024, Duration.ofHours(1), clock)) {
+            SearchResultCache writer = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                    Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), clock, disk);
+            writer.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+            disk.flush();
+
+            SearchResultCache restarted = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                    Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), clock, disk);
+
+            assertThat(restarted.get(Provider.BRAVE, "java", 3).blockOptional())
+                    .hasValueSatisfying(hit -> assertThat(hit.result().results()).hasSize(3));
+        }
+    }
+
+    @Test
+    void get_diskTier_readsOffCallerThread(@TempDir Path directory) {
+        try (DiskResultStore disk = new DiskResultStore(directory, 1024 * 1024, Duration.ofHours(1), clock)) {
+            SearchResultCache writer = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                    Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), clock, disk);
+            writer.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+            disk.flush();
+            SearchResultCache restarted = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                    Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), clock, disk);
+
+            String thread = restarted.get(Provider.BRAVE, "java", 3)
+                    .map(hit -> Thread.currentThread().getName())
+                    .block();
+
+            assertThat(thread).isNotEqualTo(Thread.currentThread().getName()).startsWith("boundedElastic");
+        }
+    }
+
+    @Test
+    void get_memoryMiss_readsEntryAnotherInstanceSharedAndKeepsItNear() {
+        InMemorySharedStore shared = new InMemorySharedStore(clock);
+        SearchResultCache instanceA = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), clock, null, shared);
+        SearchResultCache instanceB = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), clock, null, shared);
+        instanceA.put(Provider.BRAVE, "java", 10, result("java", 10), false);
+        clock.advance(Duration.ofSeconds(90));
+
+        assertThat(instanceB.get(Provider.BRAVE, "java", 5).blockOptional())
+                .hasValueSatisfying(hit -> {
+                    assertThat(hit.result().results()).hasSize(5);
+                    // Fetch time travels with the entry, so B doesn't treat A's result as new
+                    assertThat(hit.freshness()).isEqualTo(Freshness.STALE);
+                });
+        shared.close();
+        assertThat(instanceB.get(Provider.BRAVE, "java", 5).blockOptional()).isPresent();
+    }
+
+    private Freshness freshness(String query) {
+        return cache.get(Provider.BRAVE, query, 10).blockOptional().orElseThrow().freshness();
+    }
+
+    private static SearchResult result(String query, int size) {
+        List<SearchResultItem> items = IntStream.range(0, size)
+                .mapToObj(i -> new SearchResultItem("Title " + i, "https://example.com/" + i, "Description " + i,
+                        "example.com", "brave"))
+                .toList();
+        return new SearchResult(query, items.size(), items);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.config.WebSearchProperties.ProviderQuota;
+import com.example.websearchmcp.config.WebSearchProperties.UpstreamLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamRateLimiterTest {
+
+    @Test
+    void withinBurst_admittedImmediately() {
+        UpstreamRateLimiter limiter = limiter(new ProviderQuota(1, 3, 0), 10, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).toFuture()).isCompleted();
+        }
+    }
+
+    @Test
+    void unlimitedProvider_admittedImmediately() {
+        UpstreamRateLimiter limiter = limiter(new ProviderQuota(1, 1, 0), 10, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.acquire(Provider.SERPAPI, SearchPriority.NORMAL).toFuture()).isCompleted();
+        }
+    }
+
+    @Test
+    void queuedCalls_areReleasedByPriorityAtTheConfiguredRate() throws Exception {
+        UpstreamRateLimiter limiter = limiter(new ProviderQuota(20, 1, 0), 10, 1000);
+        List<SearchPriority> order = new CopyOnWriteArrayList<>();
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> background = track(limiter, SearchPriority.BACKGROUND, order);
+        CompletableFuture<Void> normal = track(limiter, SearchPriority.NORMAL, order);
+        CompletableFuture<Void> interactive = track(limiter, SearchPriority.INTERACTIVE, order);
+        CompletableFuture.allOf(background, normal, interactive).get(5, TimeUnit.SECONDS);
+
+        assertThat(order).containsExactly(SearchPriority.INTERACTIVE, SearchPriority.NORMAL, SearchPriority.BACKGROUND);
+        // Three tokens at 20/s take at least ~150ms to accrue
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(120);
+    }
+
+    @Test
+    void deadlineCannotBeMet_shedOnArrival() {
+        UpstreamRateLimiter limiter = limiter(new ProviderQuota(10, 1, 0), 10, 250);
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).subscribe(null, e -> { });
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).subscribe(null, e -> { });
+
+        // Two queued ahead at 100ms per token: a third NORMAL call would wait ~300ms
+        assertThatThrownBy(() -> limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block())
+                .isInstanceOf(UpstreamQuotaExceededException.class)
+                .hasMessageContaining("estimated wait");
+        // An interactive call jumps the queue, so it can still make it
+        assertThat(limiter.acquire(Provider.BRAVE, SearchPriority.INTERACTIVE).block()).isNull();
+    }
+
+    @Test
+    void queueFull_shed() {
+        UpstreamRateLimiter limiter = limiter(new ProviderQuota(1, 1, 0), 2, 10_000);
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).subscribe(null, e -> { });
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).subscribe(null, e -> { });
+
+        assertThatThrownBy(() -> limiter.acquire(Provider.BRAVE, SearchPriority.INTERACTIVE).block())
+                .isInstanceOf(UpstreamQuotaExceededException.class)
+                .hasMessageContaining("queue full");
+    }
+
+    @Test
+    void cancelledWaiter_leavesTheQueue() {
+        UpstreamRateLimiter limiter = limiter(new ProviderQuota(1, 1, 0), 1, 10_000);
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        Disposable waiting = limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).subscribe(null, e -> { });
+
+        waiting.dispose();
+
+        CompletableFuture<Void> next = limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).toFuture();
+        assertThat(next).isNotCompletedExceptionally();
+    }
+
+    @Test
+    void monthlyQuotaUsed_shed() {
+        UpstreamRateLimiter limiter = limiter(new ProviderQuota(100, 100, 2), 10, 100);
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+
+        assertThatThrownBy(() -> limiter.acquire(Provider.BRAVE, SearchPriority.INTERACTIVE).block())
+                .isInstanceOf(UpstreamQuotaExceededException.class)
+                .hasMessageContaining("monthly quota");
+    }
+
+    @Test
+    void refundedToken_doesNotCountAgainstRateOrMonthlyQuota() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(
+                new UpstreamLimits(Map.of(Provider.BRAVE, new ProviderQuota(0.001, 1, 1)), 10, 100), null,
+                meterRegistry, Schedulers.parallel(), Clock.systemUTC());
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+
+        limiter.refund(Provider.BRAVE);
+
+        assertThat(meterRegistry.get("websearch.upstream.monthly.used").gauge().value()).isZero();
+        assertThat(limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).toFuture()).isCompleted();
+    }
+
+    @Test
+    void sharedStore_monthlyQuotaHoldsAcrossInstancesAndRestarts() {
+        InMemorySharedStore store = new InMemorySharedStore();
+        ProviderQuota quota = new ProviderQuota(100, 100, 3);
+        UpstreamRateLimiter a = limiter(quota, 10, 100, store);
+        UpstreamRateLimiter b = limiter(quota, 10, 100, store);
+        a.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        b.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        a.syncMonthly();
+        b.syncMonthly();
+
+        // 2 of 3 used cluster-wide: one more is allowed, on either instance
+        b.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        assertThatThrownBy(() -> b.acquire(Provider.BRAVE, SearchPriority.NORMAL).block())
+                .hasMessageContaining("monthly quota");
+        b.syncMonthly();
+
+        // A restarted instance starts from the recorded total
+        UpstreamRateLimiter restarted = limiter(quota, 10, 100, store);
+        restarted.syncMonthly();
+        assertThatThrownBy(() -> restarted.acquire(Provider.BRAVE, SearchPriority.NORMAL).block())
+                .hasMessageContaining("monthly quota");
+    }
+
+    @Test
+    void sharedStoreUnavailable_countsLocallyAndCatchesUpLater() {
+        AtomicBoolean down = new AtomicBoolean(true);
+        InMemorySharedStore store = new InMemorySharedStore() {
+            @Override
+            public Map<String, Long> incrementAll(Map<String, Long> deltas, Duration ttl) {
+                if (down.get()) {
+                    throw new IllegalStateException("connection refused");
+                }
+                return super.incrementAll(deltas, ttl);
+            }
+        };
+        ProviderQuota quota = new ProviderQuota(100, 100, 2);
+        UpstreamRateLimiter limiter = limiter(quota, 10, 100, store);
+        limiter.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        limiter.syncMonthly();
+
+        down.set(false);
+        limiter.syncMonthly();
+
+        // The call made while the store was down was still recorded
+        UpstreamRateLimiter other = limiter(quota, 10, 100, store);
+        other.acquire(Provider.BRAVE, SearchPriority.NORMAL).block();
+        other.syncMonthly();
+        assertThatThrownBy(() -> other.acquire(Provider.BRAVE, SearchPriority.NORMAL).block())
+                .hasMessageContaining("monthly quota");
+    }
+
+    private static CompletableFuture<Void> track(UpstreamRateLimiter limiter, SearchPriority priority,
+                                                 List<SearchPriority> order) {
+        return limiter.acquire(Provider.BRAVE, priority)
+                .doOnSuccess(ignored -> order.add(priority))
+                .toFuture();
+    }
+
+    private static UpstreamRateLimiter limiter(ProviderQuota brave, int queueCapacity, int maxWaitMillis) {
+        return limiter(brave, queueCapacity, maxWaitMillis, null);
+    }
+
+    private static UpstreamRateLimiter limiter(ProviderQuota brave, int queueCapacity, int maxWaitMillis,
+                                               SharedStore store) {
+        return new UpstreamRateLimiter(new UpstreamLimits(Map.of(Provider.BRAVE, brave), queueCapacity, maxWaitMillis),
+                store, new SimpleMeterRegistry(), Schedulers.parallel(), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties.Deduplication;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer canonicalizer =
+            new UrlCanonicalizer(new Deduplication(true, false, 0, null).trackingParameters());
+
+    @Test
+    void schemeHostPrefixPortFragmentAndTrailingSlash_areIgnored() {
+        assertThat(canonicalizer.canonicalize("https://www.Example.com:443/docs/#intro"))
+                .isEqualTo(canonicalizer.canonicalize("http://example.com/docs"))
+                .isEqualTo(canonicalizer.canonicalize("https://m.example.com./docs//"))
+                .isEqualTo("example.com/docs");
+    }
+
+    @Test
+    void trackingParametersAreRemoved_andTheRestSorted() {
+        assertThat(canonicalizer.canonicalize("https://example.com/a?utm_source=x&b=2&gclid=abc&a=1&utm_medium=y"))
+                .isEqualTo("example.com/a?a=1&b=2");
+        assertThat(canonicalizer.canonicalize("https://example.com/a?utm_campaign=z")).isEqualTo("example.com/a");
+    }
+
+    @Test
+    void ampCacheAndViewerUrls_resolveToThePageTheyServe() {
+        String page = canonicalizer.canonicalize("https://news.example.com/2024/story");
+
+        assertThat(canonicalizer.canonicalize("https://news-example-com.cdn.ampproject.org/c/s/news.example.com/2024/story/amp"))
+                .isEqualTo(page);
+        assertThat(canonicalizer.canonicalize("https://www.google.com/amp/s/amp.news.example.com/2024/story"))
+                .isEqualTo(page);
+    }
+
+    @Test
+    void pathCase_isKept() {
+        assertThat(canonicalizer.canonicalize("https://example.com/Wiki/Java"))
+                .isNotEqualTo(canonicalizer.canonicalize("https://example.com/wiki/java"));
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.websearchmcp.service;
+
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.config.WebSearchProperties.Batch;
+import com.example.websearchmcp.config.WebSearchProperties.Hedging;
+import com.example.websearchmcp.config.WebSearchProperties.Provider;
+import com.example.websearchmcp.model.BatchSearchResult;
+import com.example.websearchmcp.model.BatchSearchResult.QueryResult;
+import com.example.websearchmcp.model.BatchSearchResult.Status;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.example.websearchmcp.provider.SearchProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebSearchServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StubProvider provider;
+    private WebSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        provider = new StubProvider(Provider.GOOGLE_CUSTOM_SEARCH, 10);
+        service = service(Provider.GOOGLE_CUSTOM_SEARCH, null, provider);
+    }
+
+    @Test
+    void search_beyondPageSize_requestsPagesConcurrentlyAndMergesInRankOrder() {
+        CompletableFuture<SearchResult> result = service.searchAsync("java", 50).toFuture();
+
+        assertThat(provider.pending.keySet()).containsExactlyInAnyOrder(0, 10, 20, 30, 40);
+        // Complete out of order; merged results must still follow rank
+        for (int offset : new int[] {40, 0, 30, 10, 20}) {
+            provider.complete(offset, page(offset, 10));
+        }
+
+        assertThat(result.join().results()).extracting(SearchResultItem::url)
+                .containsExactlyElementsOf(urls(0, 50));
+    }
+
+    @Test
+    void search_fanOutIsBounded() {
+        service.searchAsync("java", 100).toFuture();
+
+        assertThat(provider.pending).hasSize(5);
+        provider.complete(0, page(0, 10));
+        assertThat(provider.pending).hasSize(5).containsKey(50);
+    }
+
+    @Test
+    void search_duplicateAcrossPages_keepsFirstOccurrence() {
+        CompletableFuture<SearchResult> result = service.searchAsync("java", 20).toFuture();
+
+        provider.complete(0, page(0, 10));
+        // Ranking shifted between requests: result 9 shows up again at the top of page two
+        provider.complete(10, new SearchResult("java", 10, IntStream.of(9, 10, 11, 12, 13, 14, 15, 16, 17, 18)
+                .mapToObj(WebSearchServiceTest::item).toList()));
+
+        assertThat(result.join().results()).extracting(SearchResultItem::url)
+                .containsExactlyElementsOf(urls(0, 19));
+    }
+
+    @Test
+    void search_pageFails_returnsSucceededPagesWithoutCaching() {
+        CompletableFuture<SearchResult> first = service.searchAsync("java", 30).toFuture();
+        provider.complete(0, page(0, 10));
+        provider.fail(10);
+        provider.complete(20, page(20, 10));
+
+        assertThat(first.join().results()).extracting(SearchResultItem::url)
+                .containsExactlyElementsOf(concat(urls(0, 10), urls(20, 30)));
+
+        service.searchAsync("java", 30).toFuture();
+        assertThat(provider.pending).containsOnlyKeys(0, 10, 20);
+    }
+
+    @Test
+    void search_allPagesFail_propagatesError() {
+        CompletableFuture<SearchResult> result = service.searchAsync("java", 20).toFuture();
+        provider.fail(0);
+        provider.fail(10);
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void search_completeMerge_isCached() {
+        CompletableFuture<SearchResult> first = service.searchAsync("java", 20).toFuture();
+        provider.complete(0, page(0, 10));
+        provider.complete(10, page(10, 10));
+        first.join();
+
+        assertThat(service.searchAsync("java", 20).block().results()).hasSize(20);
+        assertThat(provider.pending).isEmpty();
+    }
+
+    @Test
+    void search_cachedResultShortenedByDeduplication_largerRequestGoesUpstream() {
+        CompletableFuture<SearchResult> first = service.searchAsync("java", 10).toFuture();
+        provider.complete(0, new SearchResult("java", 10, IntStream.of(0, 1, 2, 3, 3, 4, 5, 5, 6, 7)
+                .mapToObj(WebSearchServiceTest::item).toList()));
+        assertThat(first.join().results()).hasSize(8);
+
+        // The provider filled the page, so it may well have more than the 8 distinct results
+        service.searchAsync("java", 20).toFuture();
+
+        assertThat(provider.pending).containsOnlyKeys(0, 10);
+    }
+
+    @Test
+    void search_countsCacheLookupsByToolAndUpstreamCallsByProvider() {
+        CompletableFuture<SearchResult> first = service.searchAsync("java", 7)
+                .contextWrite(Context.of(WebSearchService.TOOL_CONTEXT_KEY, "web_search")).toFuture();
+        provider.complete(0, page(0, 7));
+        first.join();
+        service.searchAsync("java", 7).contextWrite(Context.of(WebSearchService.TOOL_CONTEXT_KEY, "quick_search")).block();
+
+        assertThat(meterRegistry.counter("websearch.cache.requests", "tool", "web_search", "result", "miss").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter("websearch.cache.requests", "tool", "quick_search", "result", "hit").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.timer("websearch.upstream.requests",
+                "provider", "GOOGLE_CUSTOM_SEARCH", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void search_paged_reportsPartialsInRankOrderAndTimesFirstResult() {
+        List<SearchResult> partials = new CopyOnWriteArrayList<>();
+        CompletableFuture<SearchResult> result = service.searchAsync("java", 30, SearchPriority.NORMAL, partials::add)
+                .toFuture();
+
+        provider.complete(10, page(10, 10));
+        assertThat(partials).isEmpty();
+        provider.complete(0, page(0, 10));
+        provider.complete(20, page(20, 10));
+
+        assertThat(partials).extracting(partial -> partial.results().size()).containsExactly(10, 20);
+        assertThat(partials.get(0).results()).extracting(SearchResultItem::url).containsExactlyElementsOf(urls(0, 10));
+        assertThat(result.join().results()).hasSize(30);
+        assertThat(meterRegistry.timer("websearch.search.first.result").count()).isEqualTo(1);
+    }
+
+    @Test
+    void search_withinPageSize_singleRequest() {
+        CompletableFuture<SearchResult> result = service.searchAsync("java", 7).toFuture();
+
+        assertThat(provider.pending).containsOnlyKeys(0);
+        provider.complete(0, page(0, 7));
+        assertThat(result.join().results()).hasSize(7);
+    }
+
+    @Test
+    void search_primarySlowerThanHedgeDelay_secondaryWinsAndPrimaryIsCancelled() throws InterruptedException {
+        StubProvider brave = new StubProvider(Provider.BRAVE, 100);
+        StubProvider serpApi = new StubProvider(Provider.SERPAPI, 100);
+        WebSearchService hedged = service(Provider.BRAVE,
+                new Hedging(true, Provider.SERPAPI, 0.95, 10, 50), brave, serpApi);
+
+        CompletableFuture<SearchResult> result = hedged.searchAsync("java", 5).toFuture();
+        assertThat(brave.pending).containsOnlyKeys(0);
+        waitUntil(() -> serpApi.pending.containsKey(0));
+        serpApi.complete(0, new SearchResult("java", 1, List.of(
+                new SearchResultItem("Title", "https://example.com", "", "", "serpapi"))));
+
+        assertThat(result.join().results()).extracting(SearchResultItem::source).containsExactly("serpapi");
+        assertThat(brave.cancelled).contains(0);
+        assertThat(meterRegistry.counter("websearch.hedge.sent").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("websearch.hedge.won").count()).isEqualTo(1);
+    }
+
+    @Test
+    void search_primaryAnswersWithinHedgeDelay_noHedgeSent() throws InterruptedException {
+        StubProvider brave = new StubProvider(Provider.BRAVE, 100);
+        StubProvider serpApi = new StubProvider(Provider.SERPAPI, 100);
+        WebSearchService hedged = service(Provider.BRAVE,
+                new Hedging(true, Provider.SERPAPI, 0.95, 10, 50), brave, serpApi);
+
+        CompletableFuture<SearchResult> result = hedged.searchAsync("java", 5).toFuture();
+        brave.complete(0, page(0, 5));
+        assertThat(result.join().results()).hasSize(5);
+
+        Thread.sleep(100);
+        assertThat(serpApi.pending).isEmpty();
+        assertThat(meterRegistry.counter("websearch.hedge.searches").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("websearch.hedge.sent").count()).isZero();
+    }
+
+    @Test
+    void searchBatch_reportsEachQueryInOrderAndTimesOutStragglers() {
+        SearchProvider provider = new SearchProvider() {
+            @Override
+            public Provider id() {
+                return Provider.BRAVE;
+            }
+
+            @Override
+            public Mono<SearchResult> search(String query, int count) {
+                return switch (query) {
+                    case "fails" -> Mono.error(new IllegalStateException("upstream said no"));
+                    case "hangs" -> Mono.never();
+                    default -> Mono.just(new SearchResult(query, 1, List.of(item(1))));
+                };
+            }
+        };
+        WebSearchService batchService = service(Provider.BRAVE, null, new Batch(10, 4, 200), provider);
+
+        long start = System.nanoTime();
+        BatchSearchResult batch = batchService.searchBatch(List.of("hangs", "java", "fails", " "), 5);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(batch.results()).extracting(QueryResult::query).containsExactly("hangs", "java", "fails", " ");
+        assertThat(batch.results()).extracting(QueryResult::status)
+                .containsExactly(Status.TIMED_OUT, Status.OK, Status.FAILED, Status.FAILED);
+        assertThat(batch.results().get(1).result().results()).hasSize(1);
+        assertThat(batch.results().get(2).error()).isEqualTo("upstream said no");
+    }
+
+    @Test
+    void searchBatch_parallelismIsBoundedAndQueriesShareCoalescing() {
+        CompletableFuture<BatchSearchResult> result = service(Provider.GOOGLE_CUSTOM_SEARCH, null,
+                new Batch(10, 2, 5000), provider).searchBatchAsync(List.of("java", "java", "java"), 5).toFuture();
+
+        // Two slots in use, both joined the single upstream call for "java"
+        assertThat(provider.pending).containsOnlyKeys(0);
+        provider.complete(0, page(0, 5));
+
+        assertThat(result.join().results()).extracting(QueryResult::status).containsOnly(Status.OK);
+        assertThat(provider.pending).isEmpty();
+    }
+
+    @Test
+    void searchBatch_tooManyQueries_rejected() {
+        assertThatThrownBy(() -> service.searchBatch(IntStream.range(0, 11).mapToObj(i -> "q" + i).toList(), 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private WebSearchService service(Provider primary, Hedging hedging, SearchProvider... providers) {
+        return service(primary, hedging, null, providers);
+    }
+
+    private WebSearchService service(Provider primary, Hedging hedging, Batch batch, SearchProvider... providers) {
+        WebSearchProperties properties = new WebSearchProperties("key", primary,
+                10, 60, 300, 5, null, null, null, null, hedging, null, null, null, null, batch, null, null, null, null);
+        SearchResultCache cache = new SearchResultCache(new ConcurrentMapCacheManager("searchResults"),
+                Duration.ofSeconds(60), Duration.ofSeconds(300), Duration.ofSeconds(120), Clock.systemUTC(), null);
+        return new WebSearchService(properties, List.of(providers), cache, String::strip, (SharedStore) null, meterRegistry);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static SearchResult page(int offset, int size) {
+        return new SearchResult("java", size, IntStream.range(offset, offset + size)
+                .mapToObj(WebSearchServiceTest::item).toList());
+    }
+
+    private static SearchResultItem item(int rank) {
+        return new SearchResultItem("Title " + rank, "https://example.com/" + rank, "", "", "google");
+    }
+
+    private static List<String> urls(int from, int to) {
+        return IntStream.range(from, to).mapToObj(rank -> "https://example.com/" + rank).toList();
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        return Stream.concat(first.stream(), second.stream()).toList();
+    }
+
+    /**
+     * Provider whose requests, keyed by offset, complete only when the test says so.
+     */
+    private static final class StubProvider implements SearchProvider {
+
+        final Map<Integer, Sinks.One<SearchResult>> pending = new ConcurrentHashMap<>();
+        final Set<Integer> cancelled = ConcurrentHashMap.newKeySet();
+        private final Provider id;
+        private final int pageSize;
+
+        StubProvider(Provider id, int pageSize) {
+            this.id = id;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public Provider id() {
+            return id;
+        }
+
+        @Override
+        public Mono<SearchResult> search(String query, int count) {
+            return searchPage(query, 0, count);
+        }
+
+        @Override
+        public int maxPageSize() {
+            return pageSize;
+        }
+
+        @Override
+        public Mono<SearchResult> searchPage(String query, int offset, int count) {
+            return Mono.defer(() -> pending.computeIfAbsent(offset, o -> Sinks.one()).asMono())
+                    .doOnCancel(() -> cancelled.add(offset));
+        }
+
+        void complete(int offset, SearchResult result) {
+            pending.remove(offset).tryEmitValue(result);
+        }
+
+        void fail(int offset) {
+            pending.remove(offset).tryEmitError(new IllegalStateException("page " + offset + " failed"));
+        }
+    }
+}
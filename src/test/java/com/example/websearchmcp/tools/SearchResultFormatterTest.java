@@ -0,0 +1,63 @@
+package com.example.websearchmcp.tools;
+
+import com.example.websearchmcp.model.BatchSearchResult;
+import com.example.websearchmcp.model.BatchSearchResult.QueryResult;
+import com.example.websearchmcp.model.SearchResult;
+import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultFormatterTest {
+
+    private final SearchResult result = new SearchResult("java", 20, IntStream.range(0, 20)
+            .mapToObj(i -> new SearchResultItem("Result " + i, "https://example.com/" + i,
+                    "A long description of result " + i + " " + "word ".repeat(60), "example.com", "brave"))
+            .toList());
+
+    @Test
+    void withinBudget_rendersTheFullText() {
+        String full = SearchResultFormatter.format(result);
+
+        assertThat(SearchResultFormatter.format(result, OutputBudget.of(null, full.length()))).isEqualTo(full);
+        assertThat(SearchResultFormatter.format(result, OutputBudget.UNLIMITED)).isEqualTo(full);
+    }
+
+    @Test
+    void overCharBudget_shortensDescriptionsAndDropsLowestRanked() {
+        String text = SearchResultFormatter.format(result, OutputBudget.of(null, 1500));
+
+        assertThat(text).hasSizeLessThanOrEqualTo(1500)
+                .contains("1. **Result 0**", "…")
+                .doesNotContain("**Result 19**")
+                .containsPattern("_\\d+ lower-ranked results omitted to fit the output budget._");
+    }
+
+    @Test
+    void overTokenBudget_fitsTheEstimate() {
+        String text = SearchResultFormatter.format(result, OutputBudget.of(200, null));
+
+        assertThat(OutputBudget.estimateTokens(text)).isLessThanOrEqualTo(200);
+        assertThat(text).contains("1. **Result 0**");
+    }
+
+    @Test
+    void batchBudget_isSharedBetweenQueries() {
+        BatchSearchResult batch = new BatchSearchResult(List.of(QueryResult.ok("first", result),
+                QueryResult.ok("second", result)));
+
+        String text = SearchResultFormatter.formatBatch(batch, OutputBudget.of(null, 2000));
+
+        assertThat(text).hasSizeLessThanOrEqualTo(2000).contains("## 1. first", "## 2. second");
+    }
+
+    @Test
+    void tokenEstimate_countsAsciiByTheQuarterAndOtherCharactersWhole() {
+        assertThat(OutputBudget.estimateTokens("abcdefgh")).isEqualTo(2);
+        assertThat(OutputBudget.estimateTokens("abcde")).isEqualTo(2);
+        assertThat(OutputBudget.estimateTokens("日本語")).isEqualTo(3);
+    }
+}
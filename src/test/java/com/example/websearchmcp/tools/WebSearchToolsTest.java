@@ -1,19 +1,34 @@
 package com.example.websearchmcp.tools;
 
+import com.example.websearchmcp.config.WebSearchProperties;
+import com.example.websearchmcp.model.BatchSearchResult;
+import com.example.websearchmcp.model.BatchSearchResult.QueryResult;
 import com.example.websearchmcp.model.SearchResult;
 import com.example.websearchmcp.model.SearchResult.SearchResultItem;
+import com.example.websearchmcp.service.PageFetcher;
+import com.example.websearchmcp.service.SearchPriority;
 import com.example.websearchmcp.service.WebSearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springaicommunity.mcp.context.McpRequestContextTypes.ProgressSpec;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,11 +37,21 @@ class WebSearchToolsTest {
     @Mock
     private WebSearchService searchService;
 
+    @Mock
+    private PageFetcher pageFetcher;
+
+    @Mock
+    private McpSyncRequestContext context;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private WebSearchTools webSearchTools;
 
     @BeforeEach
     void setUp() {
-        webSearchTools = new WebSearchTools(searchService);
+        WebSearchProperties properties = new WebSearchProperties("key", null, 10, 60, 300, 5, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null);
+        webSearchTools = new WebSearchTools(searchService, pageFetcher, properties, meterRegistry);
     }
 
     @Test
@@ -40,9 +65,9 @@ class WebSearchToolsTest {
                 )
         );
 
-        when(searchService.search(eq("test query"), anyInt())).thenReturn(mockResult);
+        when(searchService.searchAsync(eq("test query"), anyInt())).thenReturn(Mono.just(mockResult));
 
-        String result = webSearchTools.webSearch("test query", 10);
+        String result = webSearchTools.webSearch("test query", 10, null, null, null);
 
         assertThat(result).contains("Search Results for: test query");
         assertThat(result).contains("Title 1");
@@ -50,15 +75,34 @@ class WebSearchToolsTest {
         assertThat(result).contains("Description 1");
     }
 
+    @Test
+    void webSearch_recordsCallAndResponseSize_andNamesItselfToTheSearch() {
+        SearchResult mockResult = new SearchResult("test query", 0, List.of());
+        when(searchService.searchAsync(eq("test query"), anyInt())).thenReturn(Mono.deferContextual(context ->
+                Mono.just(context.<String>get(WebSearchService.TOOL_CONTEXT_KEY).equals("web_search")
+                        ? mockResult : new SearchResult("wrong tool", 0, List.of()))));
+
+        String result = webSearchTools.webSearch("test query", 10, null, null, null);
+        webSearchTools.webSearch(" ", 10, null, null, null);
+
+        assertThat(result).contains("test query");
+        assertThat(meterRegistry.timer("websearch.tool.calls", "tool", "web_search", "outcome", "success").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.timer("websearch.tool.calls", "tool", "web_search", "outcome", "rejected").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.summary("websearch.tool.response.size", "tool", "web_search").totalAmount())
+                .isEqualTo(result.length());
+    }
+
     @Test
     void webSearch_withEmptyQuery_returnsError() {
-        String result = webSearchTools.webSearch("", 10);
+        String result = webSearchTools.webSearch("", 10, null, null, null);
         assertThat(result).contains("Error: Search query cannot be empty");
     }
 
     @Test
     void webSearch_withNullQuery_returnsError() {
-        String result = webSearchTools.webSearch(null, 10);
+        String result = webSearchTools.webSearch(null, 10, null, null, null);
         assertThat(result).contains("Error: Search query cannot be empty");
     }
 
@@ -70,7 +114,7 @@ class WebSearchToolsTest {
                 List.of(new SearchResultItem("Title", "https://example.com", "Description", "example.com", "brave"))
         );
 
-        when(searchService.search(eq("test query"), anyInt())).thenReturn(mockResult);
+        when(searchService.searchAsync(eq("test query"), anyInt())).thenReturn(Mono.just(mockResult));
 
         SearchResult result = webSearchTools.webSearchJson("test query", 5);
 
@@ -91,10 +135,57 @@ class WebSearchToolsTest {
                 )
         );
 
-        when(searchService.search(eq("quick test"), eq(3))).thenReturn(mockResult);
+        when(searchService.searchAsync(eq("quick test"), eq(3), eq(SearchPriority.INTERACTIVE))).thenReturn(Mono.just(mockResult));
 
         String result = webSearchTools.quickSearch("quick test");
 
         assertThat(result).contains("Found 3 results");
     }
+
+    @Test
+    void webSearchBatch_formatsEachQuerySection() {
+        BatchSearchResult batch = new BatchSearchResult(List.of(
+                QueryResult.ok("first", new SearchResult("first", 1,
+                        List.of(new SearchResultItem("Title 1", "https://r1.com", "Desc 1", "r1.com", "brave")))),
+                QueryResult.failed("second", "quota exceeded"),
+                QueryResult.timedOut("third")));
+
+        when(searchService.searchBatchAsync(eq(List.of("first", "second", "third")), eq(5))).thenReturn(Mono.just(batch));
+
+        String result = webSearchTools.webSearchBatch(List.of("first", "second", "third"), null, null, null, null);
+
+        assertThat(result).contains("## 1. first", "Title 1", "## 2. second", "Error performing search: quota exceeded",
+                "## 3. third", "Timed out");
+    }
+
+    @Test
+    void webSearch_withProgressToken_sendsPartialsBeforeTheFullResult() {
+        SearchResult partial = new SearchResult("test query", 1,
+                List.of(new SearchResultItem("Title 1", "https://example1.com", "Description 1", "example1.com", "brave")));
+        SearchResult full = new SearchResult("test query", 2, List.of(partial.results().get(0),
+                new SearchResultItem("Title 2", "https://example2.com", "Description 2", "example2.com", "brave")));
+        when(context.request()).thenReturn(new CallToolRequest("web_search", Map.of(), Map.of("progressToken", "token-1")));
+        when(searchService.searchAsync(eq("test query"), eq(20), eq(SearchPriority.NORMAL), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<Consumer<SearchResult>>getArgument(3).accept(partial);
+                    return Mono.just(full);
+                });
+
+        String result = webSearchTools.webSearch("test query", 20, null, null, context);
+
+        assertThat(result).contains("Title 1", "Title 2");
+        verify(context).progress(ArgumentMatchers.<Consumer<ProgressSpec>>any());
+    }
+
+    @Test
+    void searchAndRead_capsPagesAtTheFetchLimit() {
+        SearchResult result = new SearchResult("test query", 1,
+                List.of(new SearchResultItem("Title 1", "https://example1.com", "Description 1", "example1.com", "brave")));
+        when(searchService.searchAsync("test query", 5)).thenReturn(Mono.just(result));
+        when(pageFetcher.fetchAll(List.of("https://example1.com"))).thenReturn(Mono.just(List.of()));
+
+        webSearchTools.searchAndRead("test query", 50);
+
+        verify(searchService).searchAsync("test query", 5);
+    }
 }